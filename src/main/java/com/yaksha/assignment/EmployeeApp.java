@@ -5,12 +5,13 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import com.yaksha.assignment.config.AppConfig;
 import com.yaksha.assignment.dao.EmployeeDAO;
 import com.yaksha.assignment.models.Employee;
+import com.yaksha.assignment.startup.AppContexts;
 
 public class EmployeeApp {
 
 	public static void main(String[] args) {
-		// Create an application context based on AppConfig
-		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+		// Create an application context based on AppConfig (see AppContexts for the fast-start options)
+		AnnotationConfigApplicationContext context = AppContexts.create(AppConfig.class);
 
 		// Retrieve the EmployeeDAO bean
 		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
@@ -23,6 +24,9 @@ public class EmployeeApp {
 		System.out.println("Employees in database:");
 		employeeDAO.getAllEmployees().forEach(emp -> System.out.println(emp));
 
+		// Everything needed to serve a query now exists, including lazily created beans
+		AppContexts.printTimeline(context);
+
 		// Retrieve a specific employee by ID
 		Employee retrievedEmployee = employeeDAO.getEmployeeById(1);
 		System.out.println("Employee with ID 1: " + retrievedEmployee);
@@ -0,0 +1,145 @@
+package com.yaksha.assignment.aspects;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// AIMD concurrency limit driven by observed latency. While calls finish close to their baseline (the lowest
+// recent latency of the same operation) the limit grows by roughly one per limit's worth of completions; when
+// latency climbs past tolerance x baseline the limit is cut by 10%. Baselines are kept per operation, since a
+// sub-millisecond lookup and a full-table read sharing one bulkhead are not comparable. Callers over the limit
+// wait in a short, bounded queue and are rejected once it is full or their wait times out.
+public class AdaptiveConcurrencyLimiter {
+
+	private static final double LATENCY_TOLERANCE = 2.0;
+	private static final double BACKOFF_RATIO = 0.9;
+
+	private final String name;
+	private final int minLimit;
+	private final int maxLimit;
+	private final int maxQueue;
+	private final long queueTimeoutNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+
+	// Guarded by lock; volatile so metrics can read them without locking
+	private volatile double limit;
+	private volatile int inFlight;
+	private volatile int queued;
+	private volatile long rejected;
+	// Lowest recent latency per operation, guarded by lock
+	private final Map<String, double[]> baselines = new HashMap<>();
+
+	public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+			long queueTimeoutMillis) {
+		this.name = name;
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueue = maxQueue;
+		this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+	}
+
+	// Take a slot, waiting briefly if the limit is reached; every successful acquire needs a release
+	public void acquire() {
+		lock.lock();
+		try {
+			if (inFlight < (int) limit) {
+				inFlight++;
+				return;
+			}
+			if (queued >= maxQueue) {
+				throw reject();
+			}
+			queued++;
+			try {
+				long remaining = queueTimeoutNanos;
+				while (inFlight >= (int) limit) {
+					if (remaining <= 0) {
+						throw reject();
+					}
+					remaining = available.awaitNanos(remaining);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw reject();
+			} finally {
+				queued--;
+			}
+			inFlight++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Give the slot back and feed the call's latency into the limit, against the operation's own baseline
+	public void release(String operation, long latencyNanos) {
+		lock.lock();
+		try {
+			int before = (int) limit;
+			double[] baseline = baselines.get(operation);
+			if (baseline == null) {
+				baseline = new double[] { latencyNanos };
+				baselines.put(operation, baseline);
+			} else if (latencyNanos < baseline[0]) {
+				baseline[0] = latencyNanos;
+			} else {
+				// Let the baseline drift up slowly so a lasting change in the workload is eventually accepted
+				baseline[0] += (latencyNanos - baseline[0]) / 1000;
+			}
+			if (latencyNanos > LATENCY_TOLERANCE * baseline[0]) {
+				limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+			} else if (inFlight >= limit / 2) {
+				// Only grow while the current limit is actually being used
+				limit = Math.min(maxLimit, limit + 1 / limit);
+			}
+			inFlight--;
+			if ((int) limit > before) {
+				available.signalAll();
+			} else {
+				available.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Give the slot back without a latency sample, for calls whose duration says nothing about the database
+	public void release() {
+		lock.lock();
+		try {
+			inFlight--;
+			available.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ConcurrencyLimitExceededException reject() {
+		rejected++;
+		return new ConcurrencyLimitExceededException(name, (int) limit, queued);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	public int getQueued() {
+		return queued;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+}
@@ -0,0 +1,12 @@
+package com.yaksha.assignment.aspects;
+
+// Thrown instead of queueing indefinitely for a database connection when a DAO bulkhead is full
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConcurrencyLimitExceededException(String bulkhead, int limit, int queued) {
+		super("Too many concurrent " + bulkhead + " operations (limit " + limit + ", " + queued
+				+ " already queued), request rejected");
+	}
+}
@@ -0,0 +1,55 @@
+package com.yaksha.assignment.aspects;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Separate concurrency limits for EmployeeDAO reads and writes, so a burst of slow writes cannot take the
+// connections reads need (and the other way round). Registered with Micrometer when a registry is present.
+public class DaoBulkheads implements MeterBinder {
+
+	private final AdaptiveConcurrencyLimiter reads;
+	private final AdaptiveConcurrencyLimiter writes;
+
+	public DaoBulkheads(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes) {
+		this.reads = reads;
+		this.writes = writes;
+	}
+
+	// DAO read methods are named get... or stream...; everything else changes data
+	public AdaptiveConcurrencyLimiter forMethod(String methodName) {
+		return methodName.startsWith("get") || methodName.startsWith("stream") ? reads : writes;
+	}
+
+	// Whether the method's latency should move the limit. A stream... call lasts as long as its consumer keeps
+	// reading (an export to a slow client takes minutes), so it holds a slot but leaves the limit alone.
+	public boolean adaptsTo(String methodName) {
+		return !methodName.startsWith("stream");
+	}
+
+	public AdaptiveConcurrencyLimiter getReads() {
+		return reads;
+	}
+
+	public AdaptiveConcurrencyLimiter getWrites() {
+		return writes;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bind(registry, reads);
+		bind(registry, writes);
+	}
+
+	private static void bind(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+		Gauge.builder("employee.dao.bulkhead.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+				.tag("bulkhead", limiter.getName()).register(registry);
+		Gauge.builder("employee.dao.bulkhead.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+				.tag("bulkhead", limiter.getName()).register(registry);
+		Gauge.builder("employee.dao.bulkhead.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+				.tag("bulkhead", limiter.getName()).register(registry);
+		FunctionCounter.builder("employee.dao.bulkhead.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+				.tag("bulkhead", limiter.getName()).register(registry);
+	}
+}
@@ -0,0 +1,31 @@
+package com.yaksha.assignment.aspects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event for one EmployeeDAO call through the transaction advice, whether it started its own transaction or
+// joined an enclosing one. Enabled and thresholded by the recording's settings (see jfr/employee.jfc).
+@Name("com.yaksha.assignment.EmployeeQuery")
+@Label("Employee Query")
+@Category({ "Employee", "Data Access" })
+@Description("An EmployeeDAO call made through the transaction advice")
+public class EmployeeQueryEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Outcome")
+	@Description("success, failure, or rejected by the bulkhead")
+	String outcome;
+
+	@Label("Rows")
+	@Description("Rows returned or changed, or -1 when the method does not report a count")
+	long rows;
+
+	@Label("Joined")
+	@Description("Ran inside an enclosing transaction instead of its own")
+	boolean joined;
+}
@@ -0,0 +1,38 @@
+package com.yaksha.assignment.aspects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for a transaction started by the transaction advice, from bulkhead admission to commit or
+// rollback, with the time spent waiting for a bulkhead permit and for the connection split out
+@Name("com.yaksha.assignment.EmployeeTransaction")
+@Label("Employee Transaction")
+@Category({ "Employee", "Data Access" })
+@Description("A transaction the advice ran around an EmployeeDAO call")
+public class EmployeeTransactionEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Outcome")
+	@Description("committed, rolledBack, rejected by the bulkhead, or failed (commit or begin failed)")
+	String outcome;
+
+	@Label("Bulkhead Wait")
+	@Timespan(Timespan.NANOSECONDS)
+	long bulkheadWait;
+
+	@Label("Connection Wait")
+	@Description("Time to begin the transaction, which is mostly getting a connection")
+	@Timespan(Timespan.NANOSECONDS)
+	long connectionWait;
+
+	@Label("Timeout")
+	@Description("The transaction timeout, or -1 for the transaction manager default")
+	@Timespan(Timespan.SECONDS)
+	long timeout;
+}
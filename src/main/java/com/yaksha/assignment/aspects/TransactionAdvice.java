@@ -0,0 +1,228 @@
+package com.yaksha.assignment.aspects;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import jdk.jfr.EventType;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yaksha.assignment.dao.BatchInsertResult;
+import com.yaksha.assignment.dao.UpsertResult;
+import com.yaksha.assignment.diagnostics.QueryPlanSampler;
+import com.yaksha.assignment.models.Employee;
+
+// Transaction handling around EmployeeDAO methods, shared by the proxy-based TransactionAspect and the
+// load-time woven WovenTransactionAspect. Drives the transaction manager directly rather than through
+// TransactionTemplate.execute, so a successful call adds no objects of its own (no callback, no event, no log
+// line) to what the transaction manager allocates; per-method templates and bulkheads are looked up, not built,
+// and only rollbacks are logged. With query plan diagnostics on, each outermost DAO call is also handed to the
+// QueryPlanSampler, which looks at the statements it ran. Each call and each transaction it starts is recorded as
+// a JFR event (EmployeeQueryEvent, EmployeeTransactionEvent) while a recording has them enabled; the events are
+// only created then, and otherwise no timestamps are taken for them either.
+@Component
+public class TransactionAdvice {
+
+	// Checked before creating an event, so no event object is built while no recording wants it
+	private static final EventType QUERY_EVENT = EventType.getEventType(EmployeeQueryEvent.class);
+	private static final EventType TRANSACTION_EVENT = EventType.getEventType(EmployeeTransactionEvent.class);
+
+	private final TransactionTimeouts timeouts;
+	private final DataSource dataSource;
+	private final DaoBulkheads bulkheads;
+	private final QueryPlanSampler planSampler;
+
+	// Outcome counters for transactions started by this advice (joined units of work are not counted)
+	private final AtomicLong commits = new AtomicLong();
+	private final AtomicLong rollbacks = new AtomicLong();
+
+	public TransactionAdvice(TransactionTimeouts timeouts, DataSource dataSource, DaoBulkheads bulkheads,
+			QueryPlanSampler planSampler) {
+		this.timeouts = timeouts;
+		this.dataSource = dataSource;
+		this.bulkheads = bulkheads;
+		this.planSampler = planSampler;
+	}
+
+	public Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
+		String methodName = joinPoint.getStaticPart().getSignature().getName();
+		if (!planSampler.beginCapture()) {
+			return record(methodName, joinPoint);
+		}
+		try {
+			return record(methodName, joinPoint);
+		} finally {
+			planSampler.endCapture(methodName);
+		}
+	}
+
+	// The call itself, as an EmployeeQuery event when a recording has that enabled
+	private Object record(String methodName, ProceedingJoinPoint joinPoint) throws Throwable {
+		if (!QUERY_EVENT.isEnabled()) {
+			return advise(methodName, joinPoint);
+		}
+		EmployeeQueryEvent event = new EmployeeQueryEvent();
+		event.method = methodName;
+		event.joined = TransactionSynchronizationManager.isActualTransactionActive();
+		event.outcome = "failure";
+		event.rows = -1;
+		event.begin();
+		try {
+			Object result = advise(methodName, joinPoint);
+			event.outcome = "success";
+			event.rows = rowsOf(result);
+			return result;
+		} catch (ConcurrencyLimitExceededException ex) {
+			event.outcome = "rejected";
+			throw ex;
+		} finally {
+			event.commit();
+		}
+	}
+
+	private Object advise(String methodName, ProceedingJoinPoint joinPoint) throws Throwable {
+		// Inside a unit of work the enclosing transaction commits once, so simply join it
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			try {
+				return joinPoint.proceed();
+			} catch (Throwable ex) {
+				// Make sure the enclosing transaction cannot commit the partial work
+				System.out.println("Exception occurred, marking enclosing transaction for rollback.");
+				ConnectionHolder connectionHolder = (ConnectionHolder) TransactionSynchronizationManager
+						.getResource(dataSource);
+				if (connectionHolder != null) {
+					connectionHolder.setRollbackOnly();
+				}
+				throw unchecked(ex);
+			}
+		}
+
+		// Shed load before waiting on a connection once the read or write bulkhead is full
+		AdaptiveConcurrencyLimiter limiter = bulkheads.forMethod(methodName);
+		EmployeeTransactionEvent event = null;
+		if (TRANSACTION_EVENT.isEnabled()) {
+			event = new EmployeeTransactionEvent();
+			event.method = methodName;
+			event.outcome = "failed";
+			event.begin();
+		}
+		long requested = event != null ? System.nanoTime() : 0L;
+		try {
+			limiter.acquire();
+		} catch (RuntimeException ex) {
+			if (event != null) {
+				event.outcome = ex instanceof ConcurrencyLimitExceededException ? "rejected" : "failed";
+				event.bulkheadWait = System.nanoTime() - requested;
+				event.commit();
+			}
+			throw ex;
+		}
+		long start = System.nanoTime();
+		if (event != null) {
+			event.bulkheadWait = start - requested;
+		}
+		try {
+			return executeInTransaction(methodName, joinPoint, event);
+		} finally {
+			if (bulkheads.adaptsTo(methodName)) {
+				limiter.release(methodName, System.nanoTime() - start);
+			} else {
+				limiter.release();
+			}
+			if (event != null) {
+				event.commit();
+			}
+		}
+	}
+
+	// The event, when recording, gets the connection wait and the outcome
+	private Object executeInTransaction(String methodName, ProceedingJoinPoint joinPoint,
+			EmployeeTransactionEvent event) {
+		// The template carries the method's timeout, which also bounds every JDBC statement it runs
+		TransactionTemplate definition = timeouts.templateFor(methodName);
+		PlatformTransactionManager transactionManager = definition.getTransactionManager();
+		long beginning = event != null ? System.nanoTime() : 0L;
+		TransactionStatus status = transactionManager.getTransaction(definition);
+		if (event != null) {
+			// Beginning a DataSourceTransactionManager transaction is mostly waiting for a pooled connection
+			event.connectionWait = System.nanoTime() - beginning;
+			event.timeout = definition.getTimeout();
+		}
+		Object result;
+		try {
+			timeouts.applyServerLimit(dataSource, definition);
+			// Proceed with method execution
+			result = joinPoint.proceed();
+		} catch (Throwable ex) {
+			// Handle exception and rollback
+			System.out.println("Exception occurred, rolling back transaction.");
+			rollbacks.incrementAndGet();
+			if (event != null) {
+				event.outcome = "rolledBack";
+			}
+			try {
+				transactionManager.rollback(status);
+			} catch (RuntimeException rollbackEx) {
+				ex.addSuppressed(rollbackEx);
+			}
+			throw unchecked(ex);
+		}
+		// Commits are counted (getCommitCount) rather than logged one by one
+		transactionManager.commit(status);
+		commits.incrementAndGet();
+		if (event != null) {
+			event.outcome = "committed";
+		}
+		return result;
+	}
+
+	// Unchecked exceptions (IllegalArgumentException, OptimisticLockingFailureException and the other
+	// DataAccessExceptions) and errors reach the caller as thrown, so it can tell them apart; only checked
+	// exceptions, which DAO methods do not declare, are wrapped
+	private static RuntimeException unchecked(Throwable ex) {
+		if (ex instanceof RuntimeException) {
+			return (RuntimeException) ex;
+		}
+		if (ex instanceof Error) {
+			throw (Error) ex;
+		}
+		return new RuntimeException("Transaction failed, rolled back.", ex);
+	}
+
+	// Rows a DAO method returned or changed, as far as its result tells; -1 when it does not
+	private static long rowsOf(Object result) {
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Number) {
+			return ((Number) result).longValue();
+		}
+		if (result instanceof Employee) {
+			return 1;
+		}
+		if (result instanceof BatchInsertResult) {
+			return ((BatchInsertResult) result).getInserted();
+		}
+		if (result instanceof UpsertResult) {
+			UpsertResult upsert = (UpsertResult) result;
+			return upsert.getInserted() + upsert.getUpdated();
+		}
+		return -1;
+	}
+
+	public long getCommitCount() {
+		return commits.get();
+	}
+
+	public long getRollbackCount() {
+		return rollbacks.get();
+	}
+}
@@ -0,0 +1,75 @@
+package com.yaksha.assignment.aspects;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Per-method transaction timeouts for the DAO advice. A transaction timeout is also what JdbcTemplate uses
+// as the JDBC query timeout of each statement (the remaining time), so a runaway query is cancelled by the
+// driver, the transaction rolls back and its connection is released. On MySQL the same limit can
+// additionally be enforced by the server through max_execution_time.
+public class TransactionTimeouts {
+
+	private final TransactionTemplate defaultTemplate;
+	// Built once in the constructor and only read afterwards
+	private final Map<String, TransactionTemplate> methodTemplates = new HashMap<>();
+	private final boolean serverSideLimit;
+
+	public TransactionTimeouts(TransactionTemplate defaultTemplate, Map<String, Integer> methodTimeoutSeconds,
+			boolean serverSideLimit) {
+		this.defaultTemplate = defaultTemplate;
+		this.serverSideLimit = serverSideLimit;
+		for (Map.Entry<String, Integer> entry : methodTimeoutSeconds.entrySet()) {
+			TransactionTemplate template = new TransactionTemplate(defaultTemplate.getTransactionManager(),
+					defaultTemplate);
+			template.setTimeout(entry.getValue());
+			methodTemplates.put(entry.getKey(), template);
+		}
+	}
+
+	// Template carrying the timeout configured for the DAO method, or the default one
+	public TransactionTemplate templateFor(String methodName) {
+		TransactionTemplate template = methodTemplates.get(methodName);
+		return template != null ? template : defaultTemplate;
+	}
+
+	// Call at the start of a transaction: makes MySQL abort SELECTs running past the transaction timeout
+	public void applyServerLimit(DataSource dataSource, TransactionTemplate template) {
+		if (!serverSideLimit || template.getTimeout() == TransactionDefinition.TIMEOUT_DEFAULT) {
+			return;
+		}
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SET SESSION max_execution_time = " + template.getTimeout() * 1000L);
+		} catch (SQLException e) {
+			throw new TransactionSystemException("Could not apply max_execution_time", e);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	// "getAllEmployees=120, upsertEmployees=600" -> method name to timeout in seconds
+	public static Map<String, Integer> parse(String spec) {
+		Map<String, Integer> timeouts = new HashMap<>();
+		if (spec == null || spec.trim().isEmpty()) {
+			return timeouts;
+		}
+		for (String part : spec.split(",")) {
+			String[] methodAndSeconds = part.trim().split("=");
+			if (methodAndSeconds.length != 2) {
+				throw new IllegalArgumentException("Invalid method timeout: " + part);
+			}
+			timeouts.put(methodAndSeconds[0].trim(), Integer.parseInt(methodAndSeconds[1].trim()));
+		}
+		return timeouts;
+	}
+}
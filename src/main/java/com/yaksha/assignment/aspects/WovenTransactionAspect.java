@@ -0,0 +1,47 @@
+package com.yaksha.assignment.aspects;
+
+import org.aspectj.lang.Aspects;
+import org.aspectj.lang.NoAspectBoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+// Load-time woven variant of the transaction advice (see META-INF/aop.xml). The AspectJ weaver agent weaves it
+// into EmployeeDAO itself, so calls skip the proxy and its interceptor chain, and calls from one DAO method to
+// another are advised too (they join the running transaction). Not a Spring component: AspectJ owns the
+// singleton instance and AppConfig hands it the advice in the aspectj profile. Until then calls pass through
+// unadvised, like those on an EmployeeDAO created outside Spring.
+@Aspect
+public class WovenTransactionAspect {
+
+	// Spring profile that switches from proxies to weaving; the JVM also needs
+	// -javaagent:aspectjweaver.jar
+	public static final String PROFILE = "aspectj";
+
+	private volatile TransactionAdvice transactionAdvice;
+
+	// Public methods only, matching what the proxy intercepts (private helpers and lambda bodies are excluded)
+	@Pointcut("execution(public * com.yaksha.assignment.dao.EmployeeDAO.*(..))")
+	public void employeeDAOOperations() {
+	}
+
+	@Around("employeeDAOOperations()")
+	public Object manageTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+		TransactionAdvice advice = transactionAdvice;
+		return advice == null ? joinPoint.proceed() : advice.invoke(joinPoint);
+	}
+
+	// Attach the advice to the woven singleton, failing fast when the weaver agent is missing
+	public static WovenTransactionAspect bind(TransactionAdvice transactionAdvice) {
+		WovenTransactionAspect aspect;
+		try {
+			aspect = Aspects.aspectOf(WovenTransactionAspect.class);
+		} catch (NoAspectBoundException e) {
+			throw new IllegalStateException("The " + PROFILE + " profile needs the AspectJ weaver: start the JVM with "
+					+ "-javaagent:<path to aspectjweaver.jar>", e);
+		}
+		aspect.transactionAdvice = transactionAdvice;
+		return aspect;
+	}
+}
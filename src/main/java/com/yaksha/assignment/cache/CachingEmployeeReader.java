@@ -0,0 +1,68 @@
+package com.yaksha.assignment.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.models.DepartmentSummary;
+import com.yaksha.assignment.models.Employee;
+
+// Read side of EmployeeDAO for the expensive repeated queries, served from EmployeeQueryCache.
+// The cached lists are shared and read-only; every call returns its own copies, which callers may modify.
+public class CachingEmployeeReader {
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeQueryCache queryCache;
+
+	public CachingEmployeeReader(EmployeeDAO employeeDAO, EmployeeQueryCache queryCache) {
+		this.employeeDAO = employeeDAO;
+		this.queryCache = queryCache;
+	}
+
+	public List<Employee> getAllEmployees() {
+		return copyEmployees(queryCache.get("getAllEmployees",
+				() -> Collections.unmodifiableList(employeeDAO.getAllEmployees()),
+				CachingEmployeeReader::estimateEmployees));
+	}
+
+	public List<Employee> getEmployeesByDepartment(String department) {
+		return copyEmployees(queryCache.get("getEmployeesByDepartment:" + department,
+				() -> Collections.unmodifiableList(employeeDAO.getEmployeesByDepartment(department)),
+				CachingEmployeeReader::estimateEmployees));
+	}
+
+	public List<DepartmentSummary> getDepartmentSummaries() {
+		List<DepartmentSummary> summaries = queryCache.get("getDepartmentSummaries",
+				() -> Collections.unmodifiableList(employeeDAO.getDepartmentSummaries()),
+				cached -> 64 + cached.size() * (72 + 64L));
+		List<DepartmentSummary> copies = new ArrayList<>(summaries.size());
+		for (DepartmentSummary summary : summaries) {
+			copies.add(new DepartmentSummary(summary.getDepartment(), summary.getHeadcount(),
+					summary.getTotalSalary(), summary.getMinSalary(), summary.getMaxSalary()));
+		}
+		return copies;
+	}
+
+	private static List<Employee> copyEmployees(List<Employee> employees) {
+		List<Employee> copies = new ArrayList<>(employees.size());
+		for (Employee employee : employees) {
+			copies.add(new Employee(employee));
+		}
+		return copies;
+	}
+
+	// Rough heap footprint: list slot, Employee object and its three strings
+	static long estimateEmployees(List<Employee> employees) {
+		long bytes = 64;
+		for (Employee employee : employees) {
+			bytes += 8 + 48 + estimateString(employee.getName()) + estimateString(employee.getDepartment())
+					+ estimateString(employee.getEmployeeCode());
+		}
+		return bytes;
+	}
+
+	private static long estimateString(String value) {
+		return value == null ? 0 : 40 + 2L * value.length();
+	}
+}
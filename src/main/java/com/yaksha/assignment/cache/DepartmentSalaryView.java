@@ -0,0 +1,222 @@
+package com.yaksha.assignment.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.events.EmployeeChangeEvent;
+import com.yaksha.assignment.events.EmployeeChangeListener;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+import com.yaksha.assignment.models.DepartmentSummary;
+import com.yaksha.assignment.models.Employee;
+
+// Materialised per-department headcount and salary totals. Built once from a streaming scan, then maintained from
+// outbox events, which the relay only delivers after commit. Changes are applied by a single writer; every change
+// publishes a fresh DepartmentSummary for the department, so readers never lock or query the database.
+// Summaries are shared between callers and must not be modified.
+public class DepartmentSalaryView implements EmployeeChangeListener {
+
+	// Page size when refreshing an id range after a set-based salary adjustment
+	private static final int REFRESH_PAGE_SIZE = 1000;
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeOutboxRelay relay;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// Writer-side state, guarded by this
+	private final Map<Integer, Row> rows = new HashMap<>();
+	private final Map<String, Aggregate> aggregates = new HashMap<>();
+
+	// Reader-side snapshots
+	private final Map<String, DepartmentSummary> summaries = new ConcurrentHashMap<>();
+
+	private static final class Row {
+		final String department;
+		final double salary;
+		final int version;
+
+		Row(String department, double salary, int version) {
+			this.department = department;
+			this.salary = salary;
+			this.version = version;
+		}
+	}
+
+	// Count and compensated sum, plus a salary multiset so min and max survive removals
+	private static final class Aggregate {
+		long count;
+		double sum;
+		double compensation;
+		final TreeMap<Double, Integer> salaries = new TreeMap<>();
+
+		void add(double salary, int sign) {
+			count += sign;
+			double y = sign * salary - compensation;
+			double t = sum + y;
+			compensation = (t - sum) - y;
+			sum = t;
+			if (sign > 0) {
+				salaries.merge(salary, 1, Integer::sum);
+			} else {
+				salaries.computeIfPresent(salary, (key, n) -> n == 1 ? null : n - 1);
+			}
+		}
+	}
+
+	public DepartmentSalaryView(EmployeeDAO employeeDAO, EmployeeOutboxRelay relay) {
+		this.employeeDAO = employeeDAO;
+		this.relay = relay;
+	}
+
+	// Subscribe first, then scan; events arriving meanwhile wait for the scan and are then dropped by version
+	public void start() {
+		relay.subscribe(this);
+		long started = System.currentTimeMillis();
+		synchronized (this) {
+			employeeDAO.streamAllEmployees(this::apply);
+		}
+		System.out.println("Department view loaded " + summaries.size() + " departments in "
+				+ (System.currentTimeMillis() - started) + " ms.");
+	}
+
+	public void stop() {
+		relay.unsubscribe(this);
+	}
+
+	// O(1); null for a department without employees
+	public DepartmentSummary getSummary(String department) {
+		return summaries.get(department);
+	}
+
+	// All departments, ordered by name like EmployeeDAO.getDepartmentSummaries
+	public List<DepartmentSummary> getSummaries() {
+		return new ArrayList<>(new TreeMap<>(summaries).values());
+	}
+
+	@Override
+	public synchronized void onEvent(EmployeeChangeEvent event) {
+		switch (event.getType()) {
+		case INSERTED:
+		case UPDATED:
+			apply(event.getEmployee());
+			break;
+		case DELETED:
+			remove(event.getEmployeeId());
+			break;
+		case SALARIES_ADJUSTED:
+			refresh(event);
+			break;
+		case PARTITION_TRUNCATED:
+			// The event does not list the removed rows
+			reload();
+			break;
+		default:
+			break;
+		}
+	}
+
+	// Rebuild from a fresh scan
+	private void reload() {
+		rows.clear();
+		aggregates.clear();
+		summaries.clear();
+		employeeDAO.streamAllEmployees(this::apply);
+	}
+
+	// Re-read just the rows a set-based adjustment touched, since the event carries its scope, not the rows
+	private void refresh(EmployeeChangeEvent event) {
+		Map<?, ?> scope = scopeOf(event);
+		Object department = scope.get("department");
+		if (department != null) {
+			replace(employeeDAO.getEmployeesByDepartment(department.toString()),
+					row -> department.equals(row.getValue().department));
+			return;
+		}
+		int fromId = ((Number) scope.get("fromId")).intValue();
+		int toId = ((Number) scope.get("toId")).intValue();
+		List<Employee> current = new ArrayList<>();
+		int afterId = fromId - 1;
+		while (true) {
+			List<Employee> page = employeeDAO.getEmployeesAfterId(afterId, REFRESH_PAGE_SIZE);
+			for (Employee employee : page) {
+				if (employee.getId() > toId) {
+					break;
+				}
+				current.add(employee);
+			}
+			if (page.size() < REFRESH_PAGE_SIZE || page.get(page.size() - 1).getId() >= toId) {
+				break;
+			}
+			afterId = page.get(page.size() - 1).getId();
+		}
+		replace(current, row -> row.getKey() >= fromId && row.getKey() <= toId);
+	}
+
+	// Make the rows matching the scope equal to the freshly read employees
+	private void replace(List<Employee> current, Predicate<Map.Entry<Integer, Row>> inScope) {
+		Set<Integer> seen = new HashSet<>();
+		for (Employee employee : current) {
+			seen.add(employee.getId());
+			apply(employee);
+		}
+		List<Integer> gone = new ArrayList<>();
+		for (Map.Entry<Integer, Row> row : rows.entrySet()) {
+			if (inScope.test(row) && !seen.contains(row.getKey())) {
+				gone.add(row.getKey());
+			}
+		}
+		for (Integer id : gone) {
+			remove(id);
+		}
+	}
+
+	// Versions only grow, so an event older than the row already held (a replay, or one overtaken by the
+	// initial scan or a refresh) is ignored
+	private void apply(Employee employee) {
+		Row current = rows.get(employee.getId());
+		if (current != null && current.version >= employee.getVersion()) {
+			return;
+		}
+		if (current != null) {
+			change(current.department, current.salary, -1);
+		}
+		rows.put(employee.getId(), new Row(employee.getDepartment(), employee.getSalary(), employee.getVersion()));
+		change(employee.getDepartment(), employee.getSalary(), 1);
+	}
+
+	private void remove(Integer id) {
+		Row current = id == null ? null : rows.remove(id);
+		if (current != null) {
+			change(current.department, current.salary, -1);
+		}
+	}
+
+	private void change(String department, double salary, int sign) {
+		Aggregate aggregate = aggregates.computeIfAbsent(department, key -> new Aggregate());
+		aggregate.add(salary, sign);
+		if (aggregate.count == 0) {
+			aggregates.remove(department);
+			summaries.remove(department);
+		} else {
+			summaries.put(department, new DepartmentSummary(department, aggregate.count, aggregate.sum,
+					aggregate.salaries.firstKey(), aggregate.salaries.lastKey()));
+		}
+	}
+
+	private Map<?, ?> scopeOf(EmployeeChangeEvent event) {
+		try {
+			return objectMapper.readValue(event.getPayload(), Map.class);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unreadable scope in " + event, e);
+		}
+	}
+}
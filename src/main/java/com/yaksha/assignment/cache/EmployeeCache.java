@@ -0,0 +1,300 @@
+package com.yaksha.assignment.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.events.EmployeeChangeEvent;
+import com.yaksha.assignment.events.EmployeeChangeListener;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+import com.yaksha.assignment.invalidation.Invalidation;
+import com.yaksha.assignment.invalidation.InvalidationListener;
+import com.yaksha.assignment.models.Employee;
+
+// Whole-table employee cache for getEmployeeById and getAllEmployees, kept current by outbox events. With a
+// snapshot file configured it is written out on shutdown and mapped back in on startup, so a restarted node
+// serves reads straight away while a background thread replays the outbox from the snapshot's watermark.
+// Without one (or with an unreadable one) the cache loads with a streaming scan in the background instead.
+// Callers get their own copies of the cached employees. Subscribed to an invalidation bus, it also re-reads
+// rows changed through other instances as soon as they are announced, ahead of this instance's relay poll.
+public class EmployeeCache implements EmployeeChangeListener, InvalidationListener {
+
+	// Outbox events read per catch-up query
+	private static final int CATCH_UP_PAGE_SIZE = 1000;
+
+	// Events are replayed from this far before the watermark. Concurrent transactions can commit out of outbox
+	// id order, so an event just below the watermark may not have been applied yet; replays are harmless
+	// because changes are applied by version.
+	private static final int REPLAY_MARGIN = 1000;
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeOutboxRelay relay;
+	private final EmployeeSnapshotFile snapshotFile;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ConcurrentNavigableMap<Integer, Employee> employees = new ConcurrentSkipListMap<>();
+	// Ids of the rows seen deleted. Ids are never reused, so a row read or delivered after its delete (an older
+	// event from the catch-up replay, a database read that raced the delete) must not come back. Checked and
+	// updated under the cache's lock by store and forget, the only ways rows enter or leave the map.
+	private final Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+	// Serializes reloads, so one cannot mark the cache complete while another is still filling it
+	private final Object reloadLock = new Object();
+	// Highest outbox id applied so far
+	private volatile long watermark;
+	// True once every row is present, so getAllEmployees can be answered from memory
+	private volatile boolean complete;
+	private Thread loader;
+
+	public EmployeeCache(EmployeeDAO employeeDAO, EmployeeOutboxRelay relay, EmployeeSnapshotFile snapshotFile) {
+		this.employeeDAO = employeeDAO;
+		this.relay = relay;
+		this.snapshotFile = snapshotFile;
+	}
+
+	public synchronized void start() {
+		relay.subscribe(this);
+		EmployeeSnapshotFile.Snapshot snapshot = snapshotFile == null ? null : snapshotFile.read();
+		if (snapshot != null && relay.getOldestEventId() > snapshot.getWatermark() + 1) {
+			// Events after the snapshot may have been purged from the outbox, so it cannot be brought up to date
+			System.out.println("Ignoring snapshot " + snapshotFile.getPath() + ": older than the outbox retention");
+			snapshot = null;
+		}
+		if (snapshot != null) {
+			for (Employee employee : snapshot.getEmployees()) {
+				store(employee);
+			}
+			watermark = snapshot.getWatermark();
+			complete = true;
+			System.out.println("Employee cache mapped " + employees.size() + " employees from "
+					+ snapshotFile.getPath() + " (outbox watermark " + watermark + ").");
+		}
+		long from = snapshot != null ? Math.max(0, snapshot.getWatermark() - REPLAY_MARGIN) : -1;
+		loader = new Thread(() -> {
+			long started = System.currentTimeMillis();
+			try {
+				if (from >= 0) {
+					catchUp(from);
+				} else {
+					load();
+				}
+				System.out.println("Employee cache ready with " + employees.size() + " employees after "
+						+ (System.currentTimeMillis() - started) + " ms.");
+			} catch (RuntimeException e) {
+				System.out.println("Employee cache catch-up failed, serving misses from the database: " + e);
+			}
+		}, "employee-cache-loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	public void stop() {
+		relay.unsubscribe(this);
+		if (snapshotFile == null || !complete) {
+			return;
+		}
+		// Take the watermark before copying, so anything changing during the copy is replayed on restart
+		long snapshotWatermark = watermark;
+		try {
+			snapshotFile.write(snapshotWatermark, employees.values());
+			System.out.println("Employee cache wrote " + employees.size() + " employees to " + snapshotFile.getPath()
+					+ ".");
+		} catch (IOException e) {
+			System.out.println("Could not write employee cache snapshot: " + e);
+		}
+	}
+
+	// Copy of the cached employee, or the database row on a miss (e.g. a row whose event has not arrived yet)
+	public Employee getEmployeeById(int id) {
+		Employee employee = employees.get(id);
+		if (employee == null) {
+			employee = employeeDAO.getEmployeeById(id);
+			store(employee);
+		}
+		return new Employee(employee);
+	}
+
+	// All employees in id order, copied from memory once the cache is complete
+	public List<Employee> getAllEmployees() {
+		if (!complete) {
+			return employeeDAO.getAllEmployees();
+		}
+		List<Employee> copies = new ArrayList<>(employees.size());
+		for (Employee employee : employees.values()) {
+			copies.add(new Employee(employee));
+		}
+		return Collections.unmodifiableList(copies);
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public long getWatermark() {
+		return watermark;
+	}
+
+	@Override
+	public void onEvent(EmployeeChangeEvent event) {
+		apply(event);
+		advanceWatermark(event.getId());
+	}
+
+	// Re-read the rows other instances changed, unless the cached copy is already at that version: one batched
+	// lookup for single rows, the scope's rows for a salary adjustment, everything only for a truncation. Like
+	// events, the results go through store and forget, so deletes are never undone.
+	@Override
+	public void onInvalidations(List<Invalidation> invalidations) {
+		Set<Integer> stale = new HashSet<>();
+		for (Invalidation invalidation : invalidations) {
+			if (invalidation.isAllRows()) {
+				reload();
+				return;
+			}
+			if (invalidation.isScoped()) {
+				refresh(invalidation.getScope());
+				continue;
+			}
+			int id = invalidation.getEmployeeId();
+			if (invalidation.isDeleted()) {
+				forget(id);
+				continue;
+			}
+			// Rows missing here are read as well: once complete, getAllEmployees must include them
+			Employee cached = employees.get(id);
+			if (cached == null || cached.getVersion() < invalidation.getVersion()) {
+				stale.add(id);
+			}
+		}
+		if (stale.isEmpty()) {
+			return;
+		}
+		Set<Integer> missing = new HashSet<>(stale);
+		for (Employee employee : employeeDAO.getEmployeesByIds(stale)) {
+			missing.remove(employee.getId());
+			store(employee);
+		}
+		// Deleted since the invalidation was written
+		for (Integer id : missing) {
+			forget(id);
+		}
+	}
+
+	// Full load: remember where the outbox stands first, so no later change is missed
+	private void load() {
+		long latest = relay.getLatestEventId();
+		employeeDAO.streamAllEmployees(this::store);
+		advanceWatermark(latest);
+		complete = true;
+	}
+
+	// Replay the outbox from the given id until it is drained
+	private void catchUp(long afterId) {
+		long position = afterId;
+		while (true) {
+			List<EmployeeChangeEvent> events = relay.readEvents(position, CATCH_UP_PAGE_SIZE);
+			for (EmployeeChangeEvent event : events) {
+				if (EmployeeOutboxRelay.isReadable(event)) {
+					onEvent(event);
+				}
+				position = event.getId();
+			}
+			if (events.size() < CATCH_UP_PAGE_SIZE) {
+				return;
+			}
+		}
+	}
+
+	private void apply(EmployeeChangeEvent event) {
+		switch (event.getType()) {
+		case INSERTED:
+		case UPDATED:
+			store(event.getEmployee());
+			break;
+		case DELETED:
+			if (event.getEmployeeId() != null) {
+				forget(event.getEmployeeId());
+			}
+			break;
+		case SALARIES_ADJUSTED:
+			refresh(event.getPayload());
+			break;
+		case PARTITION_TRUNCATED:
+			reload();
+			break;
+		default:
+			break;
+		}
+	}
+
+	// Re-read the rows in a set-based adjustment's scope; rows leaving or entering it have their own events
+	private void refresh(String payload) {
+		Map<?, ?> scope;
+		try {
+			scope = objectMapper.readValue(payload, Map.class);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unreadable scope " + payload, e);
+		}
+		Object department = scope.get("department");
+		if (department != null) {
+			employeeDAO.getEmployeesByDepartment(department.toString()).forEach(this::store);
+			return;
+		}
+		int afterId = ((Number) scope.get("fromId")).intValue() - 1;
+		int toId = ((Number) scope.get("toId")).intValue();
+		while (afterId < toId) {
+			List<Employee> page = employeeDAO.getEmployeesAfterId(afterId, CATCH_UP_PAGE_SIZE);
+			for (Employee employee : page) {
+				if (employee.getId() <= toId) {
+					store(employee);
+				}
+			}
+			if (page.size() < CATCH_UP_PAGE_SIZE) {
+				return;
+			}
+			afterId = page.get(page.size() - 1).getId();
+		}
+	}
+
+	// Start over from the table; getAllEmployees goes to the database until the copy is whole again. Events
+	// keep being applied meanwhile, and deletes among them stay deleted.
+	private void reload() {
+		synchronized (reloadLock) {
+			complete = false;
+			synchronized (this) {
+				employees.clear();
+			}
+			employeeDAO.streamAllEmployees(this::store);
+			complete = true;
+		}
+	}
+
+	// The one way rows enter the cache: keep whichever copy has the higher version, unless the row is deleted
+	private synchronized void store(Employee employee) {
+		if (deleted.contains(employee.getId())) {
+			return;
+		}
+		employees.merge(employee.getId(), employee,
+				(current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+	}
+
+	// The one way rows leave it, remembering the delete so no older copy is stored afterwards
+	private synchronized void forget(int id) {
+		deleted.add(id);
+		employees.remove(id);
+	}
+
+	private synchronized void advanceWatermark(long eventId) {
+		if (eventId > watermark) {
+			watermark = eventId;
+		}
+	}
+}
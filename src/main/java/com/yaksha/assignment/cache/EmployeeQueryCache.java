@@ -0,0 +1,149 @@
+package com.yaksha.assignment.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import com.yaksha.assignment.dao.EmployeeChangeTracker;
+
+// Query-result cache keyed by query and parameters. Every entry remembers the table change version it was
+// loaded at and is discarded once EmployeeChangeTracker has moved on. Entries are weighed in (estimated)
+// bytes and evicted least-recently-used first to stay within the memory budget. Concurrent misses on the
+// same key share a single database round trip.
+public class EmployeeQueryCache {
+
+	private final EmployeeChangeTracker changeTracker;
+	private final long maxBytes;
+
+	// Access-ordered, so iteration starts at the least recently used entry; guarded by "this"
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private long usedBytes;
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public EmployeeQueryCache(EmployeeChangeTracker changeTracker, long maxBytes) {
+		this.changeTracker = changeTracker;
+		this.maxBytes = maxBytes;
+	}
+
+	// Return the cached result for key, or load it; sizer estimates the result's footprint in bytes
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Supplier<T> loader, ToLongFunction<T> sizer) {
+		// Read the version before loading: a write committed during the load leaves the entry already stale
+		long version = changeTracker.getVersion();
+		Object cached = lookup(key, version);
+		if (cached != null) {
+			hits.incrementAndGet();
+			return (T) cached;
+		}
+		misses.incrementAndGet();
+
+		// Callers that miss on the same key and version wait for one loader instead of querying themselves
+		String loadKey = key + '@' + version;
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		CompletableFuture<Object> inProgress = loading.putIfAbsent(loadKey, load);
+		if (inProgress != null) {
+			return (T) await(inProgress);
+		}
+		try {
+			T value = loader.get();
+			store(key, version, value, sizer.applyAsLong(value));
+			load.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			load.completeExceptionally(e);
+			throw e;
+		} finally {
+			loading.remove(loadKey, load);
+		}
+	}
+
+	private synchronized Object lookup(String key, long version) {
+		CacheEntry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.version != version) {
+			entries.remove(key);
+			usedBytes -= entry.bytes;
+			return null;
+		}
+		return entry.value;
+	}
+
+	private synchronized void store(String key, long version, Object value, long bytes) {
+		if (bytes > maxBytes) {
+			// Larger than the whole budget: serve it, but do not let it flush everything else
+			return;
+		}
+		CacheEntry previous = entries.put(key, new CacheEntry(value, version, bytes));
+		if (previous != null) {
+			usedBytes -= previous.bytes;
+		}
+		usedBytes += bytes;
+		Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+		while (usedBytes > maxBytes && eldest.hasNext()) {
+			usedBytes -= eldest.next().getValue().bytes;
+			eldest.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> load) {
+		try {
+			return load.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		usedBytes = 0;
+	}
+
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	private static class CacheEntry {
+		private final Object value;
+		private final long version;
+		private final long bytes;
+
+		CacheEntry(Object value, long version, long bytes) {
+			this.value = value;
+			this.version = version;
+			this.bytes = bytes;
+		}
+	}
+}
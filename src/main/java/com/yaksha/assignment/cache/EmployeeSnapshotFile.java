@@ -0,0 +1,95 @@
+package com.yaksha.assignment.cache;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.yaksha.assignment.codec.EmployeeCodec;
+import com.yaksha.assignment.models.Employee;
+
+// On-disk snapshot of the employee cache, written and read back through memory-mapped buffers. Layout:
+//   int magic, int format, long outbox watermark, then the employees as one EmployeeCodec batch (columnar)
+// A snapshot is written to a temporary file and moved into place, so readers never see a partial one.
+// Snapshots of an older format are ignored, and the cache is then loaded from the database instead.
+public class EmployeeSnapshotFile {
+
+	private static final int MAGIC = 0x454d5053; // "EMPS"
+	// 1: fixed-width fields; 2: EmployeeCodec batch
+	private static final int FORMAT = 2;
+	private static final int HEADER_BYTES = 16;
+
+	private final Path path;
+
+	// What a snapshot holds: the employees and the outbox id they are current up to
+	public static class Snapshot {
+		private final long watermark;
+		private final List<Employee> employees;
+
+		Snapshot(long watermark, List<Employee> employees) {
+			this.watermark = watermark;
+			this.employees = employees;
+		}
+
+		public long getWatermark() {
+			return watermark;
+		}
+
+		public List<Employee> getEmployees() {
+			return employees;
+		}
+	}
+
+	public EmployeeSnapshotFile(Path path) {
+		this.path = path;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public void write(long watermark, Collection<Employee> employees) throws IOException {
+		// A stable copy, so the size computed up front matches what is encoded
+		List<Employee> copy = new ArrayList<>(employees);
+		long size = HEADER_BYTES + (long) EmployeeCodec.sizeOfBatch(copy);
+
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// Encoded straight into the mapped file
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC);
+			buffer.putInt(FORMAT);
+			buffer.putLong(watermark);
+			EmployeeCodec.writeBatch(buffer, copy, EmployeeCodec.Layout.COLUMNS);
+			buffer.force();
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// The stored snapshot, or null if there is none or it is unreadable (it is then simply rebuilt)
+	public Snapshot read() {
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+				System.out.println("Ignoring snapshot " + path + ": unknown format");
+				return null;
+			}
+			long watermark = buffer.getLong();
+			return new Snapshot(watermark, EmployeeCodec.readBatch(buffer));
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+			System.out.println("Ignoring snapshot " + path + ": " + e);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,435 @@
+package com.yaksha.assignment.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.yaksha.assignment.models.Employee;
+
+// Compact binary encoding of employees, read and written straight from and to ByteBuffers (heap, direct or
+// memory-mapped) with no intermediate byte arrays. Integers are varints (ids and versions zigzag-coded, ids in
+// a batch as deltas from the previous id), salaries with whole cents are stored as a varint count of cents and
+// any other salary as an 8-byte double, and strings as a varint byte length plus UTF-8.
+//
+// A single record:  byte 'e', byte FORMAT_VERSION, flags, id, version, salary, department, name, code
+// A batch:          byte 'E', byte FORMAT_VERSION, byte layout, count, department dictionary (count, strings),
+//                   then per employee flags, id delta, version, salary, department index, name, code
+// The batch is either in ROWS layout (one employee after the other) or COLUMNS layout (all flags, then all id
+// deltas, then all versions, and so on), which groups similar bytes together for general-purpose compressors.
+// Absent strings are marked in the flags and take no space. Readers reject format versions they do not know.
+public final class EmployeeCodec {
+
+	// Order of the fields of a batch
+	public enum Layout {
+		ROWS, COLUMNS
+	}
+
+	// Bumped whenever the encoding changes
+	public static final int FORMAT_VERSION = 1;
+
+	private static final byte RECORD_MAGIC = 'e';
+	private static final byte BATCH_MAGIC = 'E';
+
+	// Per-employee flags
+	private static final int SALARY_IN_CENTS = 1;
+	private static final int NO_NAME = 2;
+	private static final int NO_DEPARTMENT = 4;
+	private static final int NO_CODE = 8;
+
+	// Salaries beyond this many cents are stored as doubles, which keeps the cents conversion exact
+	private static final double MAX_CENTS = 1e15;
+
+	private EmployeeCodec() {
+	}
+
+	// Bytes writeEmployee needs for the employee
+	public static int sizeOf(Employee employee) {
+		return 3 + varintSize(zigzag(employee.getId())) + varintSize(zigzag(employee.getVersion()))
+				+ salarySize(employee.getSalary()) + optionalStringSize(employee.getDepartment())
+				+ optionalStringSize(employee.getName()) + optionalStringSize(employee.getEmployeeCode());
+	}
+
+	public static void writeEmployee(ByteBuffer buffer, Employee employee) {
+		buffer.put(RECORD_MAGIC);
+		buffer.put((byte) FORMAT_VERSION);
+		buffer.put((byte) flags(employee));
+		writeVarint(buffer, zigzag(employee.getId()));
+		writeVarint(buffer, zigzag(employee.getVersion()));
+		writeSalary(buffer, employee.getSalary());
+		writeOptionalString(buffer, employee.getDepartment());
+		writeOptionalString(buffer, employee.getName());
+		writeOptionalString(buffer, employee.getEmployeeCode());
+	}
+
+	public static Employee readEmployee(ByteBuffer buffer) {
+		checkHeader(buffer, RECORD_MAGIC);
+		int flags = buffer.get();
+		Employee employee = new Employee();
+		employee.setId((int) unzigzag(readVarint(buffer)));
+		employee.setVersion((int) unzigzag(readVarint(buffer)));
+		employee.setSalary(readSalary(buffer, flags));
+		employee.setDepartment((flags & NO_DEPARTMENT) != 0 ? null : readString(buffer));
+		employee.setName((flags & NO_NAME) != 0 ? null : readString(buffer));
+		employee.setEmployeeCode((flags & NO_CODE) != 0 ? null : readString(buffer));
+		return employee;
+	}
+
+	// Bytes writeBatch needs for the employees; the same for both layouts
+	public static int sizeOfBatch(Collection<Employee> employees) {
+		Map<String, Integer> dictionary = dictionary(employees);
+		int size = 3 + varintSize(employees.size()) + varintSize(dictionary.size());
+		for (String department : dictionary.keySet()) {
+			size += stringSize(department);
+		}
+		int previousId = 0;
+		for (Employee employee : employees) {
+			size += 1 + varintSize(zigzag((long) employee.getId() - previousId))
+					+ varintSize(zigzag(employee.getVersion())) + salarySize(employee.getSalary())
+					+ optionalStringSize(employee.getName()) + optionalStringSize(employee.getEmployeeCode());
+			if (employee.getDepartment() != null) {
+				size += varintSize(dictionary.get(employee.getDepartment()));
+			}
+			previousId = employee.getId();
+		}
+		return size;
+	}
+
+	// Encode into a new heap buffer of exactly the right size, ready for reading
+	public static ByteBuffer encodeBatch(Collection<Employee> employees, Layout layout) {
+		ByteBuffer buffer = ByteBuffer.allocate(sizeOfBatch(employees));
+		writeBatch(buffer, employees, layout);
+		buffer.flip();
+		return buffer;
+	}
+
+	public static void writeBatch(ByteBuffer buffer, Collection<Employee> employees, Layout layout) {
+		Map<String, Integer> dictionary = dictionary(employees);
+		buffer.put(BATCH_MAGIC);
+		buffer.put((byte) FORMAT_VERSION);
+		buffer.put((byte) layout.ordinal());
+		writeVarint(buffer, employees.size());
+		writeVarint(buffer, dictionary.size());
+		for (String department : dictionary.keySet()) {
+			writeString(buffer, department);
+		}
+		if (layout == Layout.ROWS) {
+			int previousId = 0;
+			for (Employee employee : employees) {
+				buffer.put((byte) flags(employee));
+				writeVarint(buffer, zigzag((long) employee.getId() - previousId));
+				writeVarint(buffer, zigzag(employee.getVersion()));
+				writeSalary(buffer, employee.getSalary());
+				if (employee.getDepartment() != null) {
+					writeVarint(buffer, dictionary.get(employee.getDepartment()));
+				}
+				writeOptionalString(buffer, employee.getName());
+				writeOptionalString(buffer, employee.getEmployeeCode());
+				previousId = employee.getId();
+			}
+			return;
+		}
+		for (Employee employee : employees) {
+			buffer.put((byte) flags(employee));
+		}
+		int previousId = 0;
+		for (Employee employee : employees) {
+			writeVarint(buffer, zigzag((long) employee.getId() - previousId));
+			previousId = employee.getId();
+		}
+		for (Employee employee : employees) {
+			writeVarint(buffer, zigzag(employee.getVersion()));
+		}
+		for (Employee employee : employees) {
+			writeSalary(buffer, employee.getSalary());
+		}
+		for (Employee employee : employees) {
+			if (employee.getDepartment() != null) {
+				writeVarint(buffer, dictionary.get(employee.getDepartment()));
+			}
+		}
+		for (Employee employee : employees) {
+			writeOptionalString(buffer, employee.getName());
+		}
+		for (Employee employee : employees) {
+			writeOptionalString(buffer, employee.getEmployeeCode());
+		}
+	}
+
+	public static List<Employee> readBatch(ByteBuffer buffer) {
+		checkHeader(buffer, BATCH_MAGIC);
+		int layoutOrdinal = buffer.get();
+		if (layoutOrdinal < 0 || layoutOrdinal >= Layout.values().length) {
+			throw new IllegalArgumentException("Unknown employee batch layout " + layoutOrdinal);
+		}
+		int count = checkedCount(buffer, readVarint(buffer));
+		String[] dictionary = new String[checkedCount(buffer, readVarint(buffer))];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = readString(buffer);
+		}
+		List<Employee> employees = new ArrayList<>(count);
+		if (Layout.values()[layoutOrdinal] == Layout.ROWS) {
+			int previousId = 0;
+			for (int i = 0; i < count; i++) {
+				int flags = buffer.get();
+				Employee employee = new Employee();
+				previousId = (int) (previousId + unzigzag(readVarint(buffer)));
+				employee.setId(previousId);
+				employee.setVersion((int) unzigzag(readVarint(buffer)));
+				employee.setSalary(readSalary(buffer, flags));
+				employee.setDepartment((flags & NO_DEPARTMENT) != 0 ? null : lookup(dictionary, readVarint(buffer)));
+				employee.setName((flags & NO_NAME) != 0 ? null : readString(buffer));
+				employee.setEmployeeCode((flags & NO_CODE) != 0 ? null : readString(buffer));
+				employees.add(employee);
+			}
+			return employees;
+		}
+		int[] flags = new int[count];
+		for (int i = 0; i < count; i++) {
+			flags[i] = buffer.get();
+			employees.add(new Employee());
+		}
+		int previousId = 0;
+		for (Employee employee : employees) {
+			previousId = (int) (previousId + unzigzag(readVarint(buffer)));
+			employee.setId(previousId);
+		}
+		for (Employee employee : employees) {
+			employee.setVersion((int) unzigzag(readVarint(buffer)));
+		}
+		for (int i = 0; i < count; i++) {
+			employees.get(i).setSalary(readSalary(buffer, flags[i]));
+		}
+		for (int i = 0; i < count; i++) {
+			if ((flags[i] & NO_DEPARTMENT) == 0) {
+				employees.get(i).setDepartment(lookup(dictionary, readVarint(buffer)));
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			if ((flags[i] & NO_NAME) == 0) {
+				employees.get(i).setName(readString(buffer));
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			if ((flags[i] & NO_CODE) == 0) {
+				employees.get(i).setEmployeeCode(readString(buffer));
+			}
+		}
+		return employees;
+	}
+
+	// Departments in order of first appearance, numbered from 0
+	private static Map<String, Integer> dictionary(Collection<Employee> employees) {
+		Map<String, Integer> dictionary = new LinkedHashMap<>();
+		for (Employee employee : employees) {
+			if (employee.getDepartment() != null && !dictionary.containsKey(employee.getDepartment())) {
+				dictionary.put(employee.getDepartment(), dictionary.size());
+			}
+		}
+		return dictionary;
+	}
+
+	private static String lookup(String[] dictionary, long index) {
+		if (index < 0 || index >= dictionary.length) {
+			throw new IllegalArgumentException("Department index " + index + " outside dictionary");
+		}
+		return dictionary[(int) index];
+	}
+
+	private static void checkHeader(ByteBuffer buffer, byte magic) {
+		byte actualMagic = buffer.get();
+		int version = buffer.get();
+		if (actualMagic != magic) {
+			throw new IllegalArgumentException("Not an encoded employee " + (magic == BATCH_MAGIC ? "batch" : "record"));
+		}
+		if (version != FORMAT_VERSION) {
+			throw new IllegalArgumentException("Unsupported employee format version " + version);
+		}
+	}
+
+	// Every entry takes at least one byte, which bounds what a damaged count can allocate
+	private static int checkedCount(ByteBuffer buffer, long count) {
+		if (count < 0 || count > buffer.remaining()) {
+			throw new IllegalArgumentException("Implausible count " + count);
+		}
+		return (int) count;
+	}
+
+	private static int flags(Employee employee) {
+		int flags = 0;
+		if (inCents(employee.getSalary())) {
+			flags |= SALARY_IN_CENTS;
+		}
+		if (employee.getName() == null) {
+			flags |= NO_NAME;
+		}
+		if (employee.getDepartment() == null) {
+			flags |= NO_DEPARTMENT;
+		}
+		if (employee.getEmployeeCode() == null) {
+			flags |= NO_CODE;
+		}
+		return flags;
+	}
+
+	private static boolean inCents(double salary) {
+		double cents = Math.rint(salary * 100);
+		return Math.abs(cents) < MAX_CENTS && cents / 100 == salary;
+	}
+
+	private static int salarySize(double salary) {
+		return inCents(salary) ? varintSize(zigzag((long) Math.rint(salary * 100))) : 8;
+	}
+
+	private static void writeSalary(ByteBuffer buffer, double salary) {
+		if (inCents(salary)) {
+			writeVarint(buffer, zigzag((long) Math.rint(salary * 100)));
+		} else {
+			buffer.putDouble(salary);
+		}
+	}
+
+	private static double readSalary(ByteBuffer buffer, int flags) {
+		return (flags & SALARY_IN_CENTS) != 0 ? unzigzag(readVarint(buffer)) / 100.0 : buffer.getDouble();
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int varintSize(long value) {
+		int size = 1;
+		while ((value & ~0x7FL) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	private static void writeVarint(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static long readVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+
+	private static int optionalStringSize(String value) {
+		return value == null ? 0 : stringSize(value);
+	}
+
+	private static void writeOptionalString(ByteBuffer buffer, String value) {
+		if (value != null) {
+			writeString(buffer, value);
+		}
+	}
+
+	private static int stringSize(String value) {
+		int length = utf8Length(value);
+		return varintSize(length) + length;
+	}
+
+	// Length prefix, then the UTF-8 bytes encoded straight into the buffer
+	private static void writeString(ByteBuffer buffer, String value) {
+		writeVarint(buffer, utf8Length(value));
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | c >> 6));
+				buffer.put((byte) (0x80 | c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.put((byte) (0xF0 | codePoint >> 18));
+				buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+				buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+				buffer.put((byte) (0x80 | codePoint & 0x3F));
+			} else {
+				// Unpaired surrogates are written as U+FFFD, as String.getBytes would
+				char encoded = Character.isSurrogate(c) ? '\uFFFD' : c;
+				buffer.put((byte) (0xE0 | encoded >> 12));
+				buffer.put((byte) (0x80 | encoded >> 6 & 0x3F));
+				buffer.put((byte) (0x80 | encoded & 0x3F));
+			}
+		}
+	}
+
+	private static int utf8Length(String value) {
+		int length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	// Decodes the UTF-8 bytes straight from the buffer into the string's characters
+	private static String readString(ByteBuffer buffer) {
+		long length = readVarint(buffer);
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalArgumentException("String length " + length + " past end of buffer");
+		}
+		int end = buffer.position() + (int) length;
+		char[] chars = new char[(int) length];
+		int count = 0;
+		while (buffer.position() < end) {
+			int b = buffer.get();
+			if (b >= 0) {
+				chars[count++] = (char) b;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[count++] = (char) ((b & 0x1F) << 6 | continuation(buffer, end));
+			} else if ((b & 0xF0) == 0xE0) {
+				chars[count++] = (char) ((b & 0x0F) << 12 | continuation(buffer, end) << 6 | continuation(buffer, end));
+			} else if ((b & 0xF8) == 0xF0) {
+				int codePoint = (b & 0x07) << 18 | continuation(buffer, end) << 12 | continuation(buffer, end) << 6
+						| continuation(buffer, end);
+				chars[count++] = Character.highSurrogate(codePoint);
+				chars[count++] = Character.lowSurrogate(codePoint);
+			} else {
+				throw new IllegalArgumentException("Malformed UTF-8");
+			}
+		}
+		return new String(chars, 0, count);
+	}
+
+	private static int continuation(ByteBuffer buffer, int end) {
+		if (buffer.position() >= end) {
+			throw new IllegalArgumentException("Truncated UTF-8 sequence");
+		}
+		int b = buffer.get();
+		if ((b & 0xC0) != 0x80) {
+			throw new IllegalArgumentException("Malformed UTF-8");
+		}
+		return b & 0x3F;
+	}
+}
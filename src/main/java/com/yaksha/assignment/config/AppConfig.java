@@ -1,15 +1,32 @@
 package com.yaksha.assignment.config;
 
+import java.nio.file.Paths;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
@@ -17,39 +34,198 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import com.yaksha.assignment.aspects.AdaptiveConcurrencyLimiter;
+import com.yaksha.assignment.aspects.DaoBulkheads;
+import com.yaksha.assignment.aspects.TransactionAdvice;
+import com.yaksha.assignment.aspects.TransactionTimeouts;
+import com.yaksha.assignment.aspects.WovenTransactionAspect;
+import com.yaksha.assignment.cache.CachingEmployeeReader;
+import com.yaksha.assignment.cache.DepartmentSalaryView;
+import com.yaksha.assignment.cache.EmployeeCache;
+import com.yaksha.assignment.cache.EmployeeQueryCache;
+import com.yaksha.assignment.cache.EmployeeSnapshotFile;
+import com.yaksha.assignment.dao.EmployeeBatchLoader;
+import com.yaksha.assignment.dao.EmployeeChangeTracker;
 import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.dao.EmployeeOutbox;
+import com.yaksha.assignment.dao.EmployeePartitionMaintenance;
+import com.yaksha.assignment.dao.EmployeeTransaction;
+import com.yaksha.assignment.diagnostics.CapturingDataSource;
+import com.yaksha.assignment.diagnostics.QueryPlanEndpoint;
+import com.yaksha.assignment.diagnostics.QueryPlanSampler;
+import com.yaksha.assignment.diagnostics.StatementCapture;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+import com.yaksha.assignment.invalidation.DatabaseInvalidationBus;
+import com.yaksha.assignment.invalidation.InvalidationBus;
+import com.yaksha.assignment.invalidation.InvalidationPublisher;
+import com.yaksha.assignment.invalidation.LoopbackInvalidationBus;
+import com.yaksha.assignment.search.EmployeeNameIndex;
+import com.yaksha.assignment.startup.AppContexts;
 
 @Configuration
 @EnableTransactionManagement
+@EnableAspectJAutoProxy
+@ComponentScan("com.yaksha.assignment.aspects")
 public class AppConfig {
 
+	// Profile that swaps MySQL for an in-process H2 database running in MySQL mode
+	public static final String EMBEDDED_PROFILE = "embedded";
+
+	// Values of -Demployee.schema.partitioning for a newly created Employee table (MySQL only)
+	public static final String PARTITION_BY_DEPARTMENT = "hash-department";
+	public static final String PARTITION_BY_ID_RANGE = "range-id";
+
+	// Values of -Demployee.invalidation.bus; without it writes are not announced to other instances
+	public static final String INVALIDATION_LOOPBACK = "loopback";
+	public static final String INVALIDATION_DATABASE = "database";
+
+	@Autowired
+	private Environment environment;
+
+	// Whether employee_code has a unique index of its own, as found by createDatabaseAndTable
+	private boolean employeeCodesUnique = true;
+
 	// Create and configure the data source to directly connect to employeedb
 	@Bean
 	public DataSource dataSource() {
 		System.out.println("Initializing DataSource...");
 		DriverManagerDataSource dataSource = new DriverManagerDataSource();
-		// Directly connect to the employeedb database
-		dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-		dataSource.setUrl(
-				"jdbc:mysql://localhost:3306/employeedb?createDatabaseIfNotExist=true&useUnicode=true&useUnicode=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&serverTimezone=UTC");
-		dataSource.setUsername("root");
-		dataSource.setPassword("root");
+		String databaseName = databaseName();
+		if (isEmbedded()) {
+			// Keep the in-memory database alive until the JVM exits, not just while a connection is open
+			dataSource.setDriverClassName("org.h2.Driver");
+			dataSource.setUrl("jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+			dataSource.setUsername("sa");
+			dataSource.setPassword("");
+		} else {
+			// Directly connect to the employeedb database
+			dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
+			dataSource.setUrl("jdbc:mysql://localhost:3306/" + databaseName
+					+ "?createDatabaseIfNotExist=true&useUnicode=true&useUnicode=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&serverTimezone=UTC");
+			dataSource.setUsername("root");
+			dataSource.setPassword("root");
+		}
 		System.out.println("DataSource Initialized with URL: " + dataSource.getUrl());
+		if (queryPlansEnabled()) {
+			// Diagnostics: record what each sampled DAO call runs on its connection
+			return new CapturingDataSource(dataSource, statementCapture());
+		}
 		return dataSource;
 	}
 
+	// Statements run during the DAO call in progress on each thread, filled in by CapturingDataSource
+	@Bean
+	public StatementCapture statementCapture() {
+		return new StatementCapture();
+	}
+
+	// Query plan diagnostics, on with -Demployee.diagnostics.queryPlans=true: statements slower than
+	// employee.diagnostics.slowMillis are EXPLAINed and reported at /actuator/queryplans
+	@Bean(destroyMethod = "stop")
+	public QueryPlanSampler queryPlanSampler(StatementCapture statementCapture, JdbcTemplate jdbcTemplate) {
+		return new QueryPlanSampler(statementCapture, jdbcTemplate, queryPlansEnabled(),
+				environment.getProperty("employee.diagnostics.slowMillis", Long.class, 50L),
+				environment.getProperty("employee.diagnostics.replanMillis", Long.class, 600000L));
+	}
+
+	// Only registered with query plan diagnostics on, so the endpoint (and its DELETE) does not exist otherwise
+	@Bean
+	@ConditionalOnProperty(name = "employee.diagnostics.queryPlans", havingValue = "true")
+	public QueryPlanEndpoint queryPlanEndpoint(QueryPlanSampler queryPlanSampler) {
+		return new QueryPlanEndpoint(queryPlanSampler);
+	}
+
 	// Create and configure JdbcTemplate using the data source
 	@Bean
 	public JdbcTemplate jdbcTemplate(DataSource dataSource) {
 		System.out.println("Initializing JdbcTemplate...");
-		return new JdbcTemplate(dataSource);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		// Inside a transaction the statement timeout is the transaction's remaining time instead
+		jdbcTemplate.setQueryTimeout(defaultTimeoutSeconds());
+		return jdbcTemplate;
+	}
+
+	// Weaving mode: with -Dspring.profiles.active=...,aspectj and -javaagent:aspectjweaver.jar, EmployeeDAO is
+	// woven at class load instead of proxied. Declared ahead of the DAO consumers and kept eager in fast-start
+	// mode, so no DAO call runs before the woven aspect has its advice.
+	@Bean
+	@Profile(WovenTransactionAspect.PROFILE)
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public WovenTransactionAspect wovenTransactionAspect(TransactionAdvice transactionAdvice) {
+		return WovenTransactionAspect.bind(transactionAdvice);
+	}
+
+	// Change version of the Employee table, bumped by committed EmployeeDAO writes
+	@Bean
+	public EmployeeChangeTracker employeeChangeTracker() {
+		return new EmployeeChangeTracker();
+	}
+
+	// Carries cache invalidations between instances: the EmployeeInvalidation table for a cluster, or straight
+	// back into this instance for tests. Only created when -Demployee.invalidation.bus is set.
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty("employee.invalidation.bus")
+	public InvalidationBus invalidationBus(JdbcTemplate jdbcTemplate, EmployeeChangeTracker employeeChangeTracker) {
+		InvalidationBus bus;
+		String type = environment.getProperty("employee.invalidation.bus");
+		if (INVALIDATION_DATABASE.equals(type)) {
+			bus = new DatabaseInvalidationBus(jdbcTemplate,
+					environment.getProperty("employee.invalidation.pollMillis", Long.class, 200L),
+					environment.getProperty("employee.invalidation.retentionMillis", Long.class, 600000L),
+					environment.getProperty("employee.invalidation.gapMillis", Long.class, 60000L));
+		} else if (INVALIDATION_LOOPBACK.equals(type)) {
+			bus = new LoopbackInvalidationBus();
+		} else {
+			throw new IllegalArgumentException("Unknown employee.invalidation.bus: " + type);
+		}
+		// A change made elsewhere outdates query results and ETags here just like a local one
+		bus.subscribe(invalidations -> employeeChangeTracker.markChanged());
+		return bus;
+	}
+
+	// Publishes invalidations for committed writes, batching those that commit within batchMillis of each other
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty("employee.invalidation.bus")
+	public InvalidationPublisher invalidationPublisher(InvalidationBus invalidationBus) {
+		return new InvalidationPublisher(invalidationBus,
+				environment.getProperty("employee.invalidation.batchMillis", Long.class, 5L), 1000);
+	}
+
+	// Change events written by EmployeeDAO in the same transaction as the change itself, also announced to other
+	// instances when there is an invalidation bus
+	@Bean
+	public EmployeeOutbox employeeOutbox(JdbcTemplate jdbcTemplate,
+			ObjectProvider<InvalidationPublisher> invalidationPublisher) {
+		return new EmployeeOutbox(jdbcTemplate, invalidationPublisher.getIfAvailable());
 	}
 
 	// Ensure EmployeeDAO is available as a bean in the application context
 	@Bean
-	public EmployeeDAO employeeDAO(JdbcTemplate jdbcTemplate) {
+	public EmployeeDAO employeeDAO(JdbcTemplate jdbcTemplate, EmployeeChangeTracker employeeChangeTracker,
+			EmployeeOutbox employeeOutbox) {
 		System.out.println("Creating EmployeeDAO bean...");
-		return new EmployeeDAO(jdbcTemplate);
+		return new EmployeeDAO(jdbcTemplate, employeeChangeTracker, employeeOutbox, employeeCodesUnique);
+	}
+
+	// Delivers outbox events to in-process subscribers, polling every second unless
+	// -Demployee.outbox.pollMillis=... says otherwise. Events are kept for a day
+	// (-Demployee.outbox.retentionMillis=...) so restarted caches can catch up from them, and an id the relay
+	// skipped is looked for during -Demployee.outbox.gapMillis=... (a minute) in case it commits late.
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	public EmployeeOutboxRelay employeeOutboxRelay(JdbcTemplate jdbcTemplate,
+			EmployeeChangeTracker employeeChangeTracker) {
+		long pollMillis = environment.getProperty("employee.outbox.pollMillis", Long.class, 1000L);
+		long retentionMillis = environment.getProperty("employee.outbox.retentionMillis", Long.class, 86400000L);
+		long gapMillis = environment.getProperty("employee.outbox.gapMillis", Long.class, 60000L);
+		return new EmployeeOutboxRelay(jdbcTemplate, employeeChangeTracker, pollMillis, retentionMillis, gapMillis);
+	}
+
+	// Fuzzy name search, only with -Demployee.search.nameIndex=true since it loads every name onto the heap at
+	// startup; kept current by outbox events
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(name = "employee.search.nameIndex", havingValue = "true")
+	public EmployeeNameIndex employeeNameIndex(EmployeeDAO employeeDAO, EmployeeOutboxRelay employeeOutboxRelay) {
+		return new EmployeeNameIndex(employeeDAO, employeeOutboxRelay);
 	}
 
 	@Bean
@@ -61,7 +237,88 @@ public class AppConfig {
 	@Bean
 	@Autowired
 	public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
-		return new TransactionTemplate(transactionManager);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setTimeout(defaultTimeoutSeconds());
+		return transactionTemplate;
+	}
+
+	// Per-method transaction timeouts, e.g. -Demployee.timeout.methods=getAllEmployees=120,upsertEmployees=600,
+	// optionally also enforced by MySQL itself with -Demployee.timeout.serverSide=true
+	@Bean
+	public TransactionTimeouts transactionTimeouts(TransactionTemplate transactionTemplate) {
+		boolean serverSide = !isEmbedded()
+				&& environment.getProperty("employee.timeout.serverSide", Boolean.class, false);
+		// A full export runs as long as the client keeps reading, so it gets an hour unless configured
+		Map<String, Integer> methodTimeouts = TransactionTimeouts
+				.parse("streamAllEmployees=3600,streamEmployeesInPartition=3600");
+		methodTimeouts.putAll(TransactionTimeouts.parse(environment.getProperty("employee.timeout.methods")));
+		return new TransactionTimeouts(transactionTemplate, methodTimeouts, serverSide);
+	}
+
+	// Versioned result cache for getAllEmployees and department-level reads, 64 MB unless configured
+	@Bean
+	public EmployeeQueryCache employeeQueryCache(EmployeeChangeTracker employeeChangeTracker) {
+		long maxBytes = environment.getProperty("employee.cache.maxBytes", Long.class, 64L * 1024 * 1024);
+		return new EmployeeQueryCache(employeeChangeTracker, maxBytes);
+	}
+
+	@Bean
+	public CachingEmployeeReader cachingEmployeeReader(EmployeeDAO employeeDAO, EmployeeQueryCache employeeQueryCache) {
+		return new CachingEmployeeReader(employeeDAO, employeeQueryCache);
+	}
+
+	// Per-department headcount and salary totals held in memory, only with -Demployee.departments.view=true;
+	// kept current by outbox events. Otherwise /employees/departments runs the SQL aggregate.
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(name = "employee.departments.view", havingValue = "true")
+	public DepartmentSalaryView departmentSalaryView(EmployeeDAO employeeDAO,
+			EmployeeOutboxRelay employeeOutboxRelay) {
+		return new DepartmentSalaryView(employeeDAO, employeeOutboxRelay);
+	}
+
+	// Whole-table employee cache behind GET /employees/{id}, only with -Demployee.cache.enabled=true since it loads
+	// every row onto the heap; snapshotted to -Demployee.cache.snapshotFile=<path> across restarts when set
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(name = "employee.cache.enabled", havingValue = "true")
+	public EmployeeCache employeeCache(EmployeeDAO employeeDAO, EmployeeOutboxRelay employeeOutboxRelay,
+			ObjectProvider<InvalidationBus> invalidationBus) {
+		String snapshotFile = environment.getProperty("employee.cache.snapshotFile");
+		EmployeeCache employeeCache = new EmployeeCache(employeeDAO, employeeOutboxRelay,
+				snapshotFile == null ? null : new EmployeeSnapshotFile(Paths.get(snapshotFile)));
+		// The loopback bus only echoes this instance's own writes, which reach the cache through the relay already
+		if (INVALIDATION_DATABASE.equals(environment.getProperty("employee.invalidation.bus"))) {
+			invalidationBus.getObject().subscribe(employeeCache);
+		}
+		return employeeCache;
+	}
+
+	// Coalesces concurrent single-id lookups into getEmployeesByIds calls, collecting ids for
+	// -Demployee.batchLoader.windowMicros (2 ms by default) per batch
+	@Bean(destroyMethod = "stop")
+	public EmployeeBatchLoader employeeBatchLoader(EmployeeDAO employeeDAO) {
+		return new EmployeeBatchLoader(employeeDAO,
+				environment.getProperty("employee.batchLoader.windowMicros", Long.class, 2000L),
+				environment.getProperty("employee.batchLoader.maxBatchSize", Integer.class, 500),
+				environment.getProperty("employee.batchLoader.threads", Integer.class, 4));
+	}
+
+	// Per-partition truncate, export and listing for a partitioned Employee table
+	@Bean
+	public EmployeePartitionMaintenance employeePartitionMaintenance(JdbcTemplate jdbcTemplate,
+			EmployeeDAO employeeDAO, EmployeeOutbox employeeOutbox, EmployeeChangeTracker employeeChangeTracker) {
+		return new EmployeePartitionMaintenance(jdbcTemplate, employeeDAO, employeeOutbox, employeeChangeTracker);
+	}
+
+	// Adaptive concurrency limits applied by TransactionAdvice, one bulkhead for reads and one for writes
+	@Bean
+	public DaoBulkheads daoBulkheads() {
+		return new DaoBulkheads(bulkhead("read", 20, 100, 50), bulkhead("write", 10, 50, 20));
+	}
+
+	// Unit of work running several EmployeeDAO calls in a single transaction
+	@Bean
+	public EmployeeTransaction employeeTx(TransactionTemplate transactionTemplate, EmployeeDAO employeeDAO) {
+		return new EmployeeTransaction(transactionTemplate, employeeDAO);
 	}
 
 	// Ensure the database and table are created at the very first step
@@ -70,12 +327,28 @@ public class AppConfig {
 		System.out.println("Executing @PostConstruct: Creating Database and Table...");
 
 		JdbcTemplate jdbcTemplate = jdbcTemplate(dataSource());
+		boolean fastStart = AppContexts.FAST_START
+				.equals(environment.getProperty(AppContexts.STARTUP_MODE_PROPERTY));
 
 		// Create database query (it will not fail if already exists)
-		String createDatabaseSQL = "CREATE DATABASE IF NOT EXISTS employeedb";
+		String createDatabaseSQL = "CREATE DATABASE IF NOT EXISTS " + databaseName();
 		// Create Employee table query
-		String createTableSQL = "CREATE TABLE IF NOT EXISTS Employee (" + "id INT AUTO_INCREMENT PRIMARY KEY, "
-				+ "name VARCHAR(255) NOT NULL, " + "department VARCHAR(255) NOT NULL, " + "salary DOUBLE NOT NULL)";
+		String createTableSQL = createEmployeeTableSQL();
+		// Create EmployeeOutbox table query
+		String createOutboxSQL = "CREATE TABLE IF NOT EXISTS EmployeeOutbox (" + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+				+ "employee_id INT NULL, " + "event_type VARCHAR(32) NOT NULL, " + "payload VARCHAR(2048) NULL, "
+				+ "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+				+ "INDEX idx_outbox_created (created_at))";
+		// Create EmployeeOutboxOffset table query: how far each running instance's relay has read the outbox
+		String createOutboxOffsetSQL = "CREATE TABLE IF NOT EXISTS EmployeeOutboxOffset ("
+				+ "consumer VARCHAR(36) PRIMARY KEY, " + "last_id BIGINT NOT NULL, "
+				+ "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+		// Create EmployeeInvalidation table query
+		String createInvalidationSQL = "CREATE TABLE IF NOT EXISTS EmployeeInvalidation ("
+				+ "id BIGINT AUTO_INCREMENT PRIMARY KEY, " + "origin VARCHAR(36) NOT NULL, " + "employee_id INT NULL, "
+				+ "version INT NOT NULL, " + "scope VARCHAR(2048) NULL, "
+				+ "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+				+ "INDEX idx_invalidation_created (created_at))";
 
 		try (Connection connection = jdbcTemplate.getDataSource().getConnection();
 				Statement statement = connection.createStatement()) {
@@ -83,19 +356,200 @@ public class AppConfig {
 			// Logging the connection success
 			System.out.println("Connected to the database successfully.");
 
-			// Create the database if it does not exist
-			System.out.println("Executing SQL: " + createDatabaseSQL);
-			statement.executeUpdate(createDatabaseSQL);
-			System.out.println("Database created or already exists.");
+			// Create the database if it does not exist (the embedded database exists once connected, and in
+			// fast-start mode the connection URL's createDatabaseIfNotExist has already taken care of it)
+			if (!isEmbedded() && !fastStart) {
+				System.out.println("Executing SQL: " + createDatabaseSQL);
+				statement.executeUpdate(createDatabaseSQL);
+				System.out.println("Database created or already exists.");
+			}
 
 			// Create the Employee table if it doesn't exist
 			System.out.println("Executing SQL: " + createTableSQL);
 			statement.executeUpdate(createTableSQL);
 			System.out.println("Table 'Employee' created or already exists.");
 
+			// Create the EmployeeOutbox table if it doesn't exist
+			System.out.println("Executing SQL: " + createOutboxSQL);
+			statement.executeUpdate(createOutboxSQL);
+			System.out.println("Table 'EmployeeOutbox' created or already exists.");
+
+			// Create the EmployeeOutboxOffset table if it doesn't exist
+			System.out.println("Executing SQL: " + createOutboxOffsetSQL);
+			statement.executeUpdate(createOutboxOffsetSQL);
+			System.out.println("Table 'EmployeeOutboxOffset' created or already exists.");
+
+			// Create the EmployeeInvalidation table if it doesn't exist
+			System.out.println("Executing SQL: " + createInvalidationSQL);
+			statement.executeUpdate(createInvalidationSQL);
+			System.out.println("Table 'EmployeeInvalidation' created or already exists.");
+
+			// Fast start assumes an up-to-date schema and skips the metadata probes below
+			if (fastStart) {
+				employeeCodesUnique = !partitioned();
+				System.out.println("Fast start: skipping schema upgrade checks.");
+				return;
+			}
+
+			// Tables created before optimistic concurrency was introduced lack the version column
+			addColumnIfMissing(statement, "version", "INT NOT NULL DEFAULT 0");
+			// ... and the natural key used by the bulk upsert
+			if (addColumnIfMissing(statement, "employee_code", "VARCHAR(64) NULL")) {
+				String createIndexSQL = "CREATE UNIQUE INDEX uk_employee_code ON Employee (employee_code)";
+				System.out.println("Executing SQL: " + createIndexSQL);
+				statement.executeUpdate(createIndexSQL);
+			}
+			// ... and the index behind name prefix search
+			addIndexIfMissing(connection, statement, "Employee", "idx_employee_name", "name");
+			// ... and the index department reads and the salary adjustment's row locks go through
+			addIndexIfMissing(connection, statement, "Employee", "idx_employee_department", "department");
+			// Outbox tables created before the purge was indexed
+			addIndexIfMissing(connection, statement, "EmployeeOutbox", "idx_outbox_created", "created_at");
+			// A table created partitioned (now or by an earlier run) keeps codes unique only per partition key
+			employeeCodesUnique = hasUniqueIndexOn(connection, "Employee", "employee_code");
+			if (!employeeCodesUnique) {
+				System.out.println("Employee codes are not unique on their own, upsertEmployees is disabled.");
+			}
+
 		} catch (SQLException e) {
 			System.out.println("Error occurred during database or table creation.");
 			e.printStackTrace();
 		}
 	}
+
+	// Employee DDL, partitioned when -Demployee.schema.partitioning is hash-department or range-id. MySQL
+	// requires every unique key of a partitioned table to contain the partitioning column, so there the primary
+	// key and the employee_code key are widened: employee_code is then unique only per department (or per id),
+	// and upsertEmployees, which needs globally unique codes, is refused. Partitioning only applies when the table
+	// is created; an existing table is left as it is.
+	private String createEmployeeTableSQL() {
+		String partitioning = environment.getProperty("employee.schema.partitioning", "none");
+		int partitions = environment.getProperty("employee.schema.partitions", Integer.class, 8);
+		String columns = "name VARCHAR(255) NOT NULL, " + "department VARCHAR(255) NOT NULL, "
+				+ "salary DOUBLE NOT NULL, " + "version INT NOT NULL DEFAULT 0, " + "employee_code VARCHAR(64) NULL, ";
+		if (!partitioned()) {
+			if (!"none".equals(partitioning)) {
+				System.out.println("Partitioning is not supported by the embedded database, ignoring: " + partitioning);
+			}
+			return "CREATE TABLE IF NOT EXISTS Employee (" + "id INT AUTO_INCREMENT PRIMARY KEY, " + columns
+					+ "CONSTRAINT uk_employee_code UNIQUE (employee_code), " + "INDEX idx_employee_name (name), "
+					+ "INDEX idx_employee_department (department))";
+		}
+		if (PARTITION_BY_DEPARTMENT.equals(partitioning)) {
+			// Queries filtering on department (getEmployeesByDepartment, adjustSalariesByDepartment,
+			// getEmployeeById(id, department)) read a single partition
+			return "CREATE TABLE IF NOT EXISTS Employee (" + "id INT AUTO_INCREMENT, " + columns
+					+ "PRIMARY KEY (id, department), " + "CONSTRAINT uk_employee_code UNIQUE (employee_code, department), "
+					+ "INDEX idx_employee_name (name), " + "INDEX idx_employee_department (department)) "
+					+ "PARTITION BY KEY (department) PARTITIONS " + partitions;
+		}
+		if (PARTITION_BY_ID_RANGE.equals(partitioning)) {
+			// Lookups and scans by id or id range read only the partitions they cover, and an old id range can be
+			// archived with EmployeePartitionMaintenance; the last partition takes all ids beyond the ranges
+			long rangeSize = environment.getProperty("employee.schema.rangeSize", Long.class, 1000000L);
+			StringBuilder ranges = new StringBuilder();
+			for (int i = 0; i < partitions - 1; i++) {
+				ranges.append("PARTITION p").append(i).append(" VALUES LESS THAN (").append((i + 1) * rangeSize)
+						.append("), ");
+			}
+			ranges.append("PARTITION pmax VALUES LESS THAN MAXVALUE");
+			return "CREATE TABLE IF NOT EXISTS Employee (" + "id INT AUTO_INCREMENT PRIMARY KEY, " + columns
+					+ "CONSTRAINT uk_employee_code UNIQUE (employee_code, id), " + "INDEX idx_employee_name (name), "
+					+ "INDEX idx_employee_department (department)) " + "PARTITION BY RANGE (id) (" + ranges + ")";
+		}
+		throw new IllegalArgumentException("Unknown employee.schema.partitioning: " + partitioning);
+	}
+
+	// Limiter settings, overridable as employee.bulkhead.<name>.initialLimit / maxLimit / maxQueue / queueTimeoutMillis
+	private AdaptiveConcurrencyLimiter bulkhead(String name, int initialLimit, int maxLimit, int maxQueue) {
+		String prefix = "employee.bulkhead." + name + ".";
+		return new AdaptiveConcurrencyLimiter(name,
+				environment.getProperty(prefix + "initialLimit", Integer.class, initialLimit), 1,
+				environment.getProperty(prefix + "maxLimit", Integer.class, maxLimit),
+				environment.getProperty(prefix + "maxQueue", Integer.class, maxQueue),
+				environment.getProperty(prefix + "queueTimeoutMillis", Long.class, 100L));
+	}
+
+	// Default transaction and statement timeout in seconds (-Demployee.timeout.default=...)
+	private int defaultTimeoutSeconds() {
+		return environment.getProperty("employee.timeout.default", Integer.class, 30);
+	}
+
+	private boolean queryPlansEnabled() {
+		return environment.getProperty("employee.diagnostics.queryPlans", Boolean.class, false);
+	}
+
+	// Whether a newly created Employee table is partitioned
+	private boolean partitioned() {
+		return !isEmbedded() && !"none".equals(environment.getProperty("employee.schema.partitioning", "none"));
+	}
+
+	private boolean isEmbedded() {
+		return environment.acceptsProfiles(Profiles.of(EMBEDDED_PROFILE));
+	}
+
+	// Database (or in-memory database) name, overridable with -Demployee.db.name=...
+	private String databaseName() {
+		return environment.getProperty("employee.db.name", "employeedb");
+	}
+
+	// Add a column to the Employee table unless it is already present, returning
+	// true if it had to be added
+	private boolean addColumnIfMissing(Statement statement, String column, String definition) throws SQLException {
+		boolean present = false;
+		try (ResultSet resultSet = statement.executeQuery("SELECT * FROM Employee WHERE 1 = 0")) {
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			for (int i = 1; i <= metaData.getColumnCount(); i++) {
+				if (metaData.getColumnName(i).equalsIgnoreCase(column)) {
+					present = true;
+				}
+			}
+		}
+		if (!present) {
+			String alterTableSQL = "ALTER TABLE Employee ADD COLUMN " + column + " " + definition;
+			System.out.println("Executing SQL: " + alterTableSQL);
+			statement.executeUpdate(alterTableSQL);
+		}
+		return !present;
+	}
+
+	// Whether some unique index of the given table consists of exactly the given column
+	private boolean hasUniqueIndexOn(Connection connection, String table, String column) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String storedTable = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+		Map<String, List<String>> columnsByIndex = new HashMap<>();
+		try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, storedTable, true, false)) {
+			while (resultSet.next()) {
+				String index = resultSet.getString("INDEX_NAME");
+				String indexColumn = resultSet.getString("COLUMN_NAME");
+				if (index != null && indexColumn != null) {
+					columnsByIndex.computeIfAbsent(index, name -> new ArrayList<>()).add(indexColumn);
+				}
+			}
+		}
+		for (List<String> columns : columnsByIndex.values()) {
+			if (columns.size() == 1 && columns.get(0).equalsIgnoreCase(column)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Create an index on the given table unless one of that name exists
+	private void addIndexIfMissing(Connection connection, Statement statement, String table, String index,
+			String columns) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String storedTable = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+		try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, storedTable, false,
+				false)) {
+			while (resultSet.next()) {
+				if (index.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+					return;
+				}
+			}
+		}
+		String createIndexSQL = "CREATE INDEX " + index + " ON " + table + " (" + columns + ")";
+		System.out.println("Executing SQL: " + createIndexSQL);
+		statement.executeUpdate(createIndexSQL);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.yaksha.assignment.dao;
+
+import java.util.List;
+
+import com.yaksha.assignment.models.Employee;
+
+// Outcome of a savepoint-protected batch insert: rows that made it in, and the ones that were rolled back
+public class BatchInsertResult {
+
+	private final int inserted;
+	private final List<Failure> failures;
+
+	public BatchInsertResult(int inserted, List<Failure> failures) {
+		this.inserted = inserted;
+		this.failures = failures;
+	}
+
+	public int getInserted() {
+		return inserted;
+	}
+
+	// Failed rows in input order
+	public List<Failure> getFailures() {
+		return failures;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchInsertResult [inserted=" + inserted + ", failed=" + failures.size() + "]";
+	}
+
+	public static class Failure {
+
+		private final int index;
+		private final Employee employee;
+		private final String reason;
+
+		public Failure(int index, Employee employee, String reason) {
+			this.index = index;
+			this.employee = employee;
+			this.reason = reason;
+		}
+
+		// Position of the row in the list passed to insertEmployees
+		public int getIndex() {
+			return index;
+		}
+
+		public Employee getEmployee() {
+			return employee;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		@Override
+		public String toString() {
+			return "Failure [index=" + index + ", employee=" + employee + ", reason=" + reason + "]";
+		}
+	}
+}
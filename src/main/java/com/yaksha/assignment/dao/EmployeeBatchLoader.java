@@ -0,0 +1,168 @@
+package com.yaksha.assignment.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.yaksha.assignment.models.Employee;
+
+// Coalesces single-id lookups from many threads: ids requested within windowMicros of the first one in a batch
+// are fetched together by one getEmployeesByIds call (one transaction, one round trip per IN chunk), and each
+// caller gets its own row back. A batch is sent early once it holds maxBatchSize ids. Concurrent requests for
+// the same id share one lookup, but each caller gets its own copy of the row, so one caller's update (which bumps
+// the version on the object it passes in) cannot change what another caller compares against.
+public class EmployeeBatchLoader {
+
+	private final EmployeeDAO employeeDAO;
+	private final long windowMicros;
+	private final int maxBatchSize;
+	private final ScheduledExecutorService executor;
+
+	// Ids waiting for the next batch, and whether loads are still accepted; guarded by "this"
+	private Batch pending = new Batch();
+	private boolean stopped;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	public EmployeeBatchLoader(EmployeeDAO employeeDAO, long windowMicros, int maxBatchSize, int threads) {
+		this.employeeDAO = employeeDAO;
+		this.windowMicros = windowMicros;
+		this.maxBatchSize = maxBatchSize;
+		this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "employee-batch-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// The employee with the given id, or null if there is none; blocks until its batch has been fetched
+	public Employee getEmployeeById(int id) {
+		try {
+			return load(id).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	// Queue the id for the next batch; the future completes with a copy of the employee, or null if there is none
+	public CompletableFuture<Employee> load(int id) {
+		requests.incrementAndGet();
+		Batch full = null;
+		CompletableFuture<Employee> shared;
+		synchronized (this) {
+			if (stopped) {
+				throw new IllegalStateException("Employee batch loader is stopped");
+			}
+			shared = pending.futures.get(id);
+			if (shared == null) {
+				shared = new CompletableFuture<>();
+				pending.futures.put(id, shared);
+				if (pending.futures.size() >= maxBatchSize) {
+					full = take();
+				} else if (pending.futures.size() == 1) {
+					// First id of a new batch: it goes out when the window closes, unless it fills up first
+					schedule(pending);
+				}
+			}
+		}
+		if (full != null) {
+			Batch batch = full;
+			try {
+				executor.execute(() -> fetch(batch));
+			} catch (RejectedExecutionException e) {
+				fail(batch, e);
+			}
+		}
+		return shared.thenApply(employee -> employee == null ? null : new Employee(employee));
+	}
+
+	public void stop() {
+		synchronized (this) {
+			stopped = true;
+		}
+		// Batches already queued are still sent: delayed tasks run after shutdown
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		System.out.println("Employee batch loader served " + requests.get() + " lookups in " + batches.get()
+				+ " batches.");
+	}
+
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	public long getBatchCount() {
+		return batches.get();
+	}
+
+	// Send the batch when its window closes; the caller holds the lock. If it cannot be scheduled, nobody would
+	// ever send it, so its callers are failed instead of left waiting.
+	private void schedule(Batch batch) {
+		try {
+			executor.schedule(() -> {
+				synchronized (this) {
+					if (batch != pending) {
+						return;
+					}
+					take();
+				}
+				fetch(batch);
+			}, windowMicros, TimeUnit.MICROSECONDS);
+		} catch (RejectedExecutionException e) {
+			take();
+			fail(batch, e);
+		}
+	}
+
+	// Close the pending batch and start a new one; the caller holds the lock
+	private Batch take() {
+		Batch batch = pending;
+		pending = new Batch();
+		return batch;
+	}
+
+	private void fetch(Batch batch) {
+		batches.incrementAndGet();
+		try {
+			List<Employee> employees = employeeDAO.getEmployeesByIds(new ArrayList<>(batch.futures.keySet()));
+			for (Employee employee : employees) {
+				CompletableFuture<Employee> future = batch.futures.get(employee.getId());
+				if (future != null) {
+					future.complete(employee);
+				}
+			}
+			// Whatever is left was not found
+			for (CompletableFuture<Employee> future : batch.futures.values()) {
+				future.complete(null);
+			}
+		} catch (RuntimeException e) {
+			fail(batch, e);
+		}
+	}
+
+	private static void fail(Batch batch, RuntimeException e) {
+		for (CompletableFuture<Employee> future : batch.futures.values()) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	private static class Batch {
+		private final Map<Integer, CompletableFuture<Employee>> futures = new HashMap<>();
+	}
+}
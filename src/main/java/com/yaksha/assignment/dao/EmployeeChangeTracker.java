@@ -0,0 +1,60 @@
+package com.yaksha.assignment.dao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Cheap change version of the Employee table, bumped by every EmployeeDAO write once it has committed.
+// Readers compare versions (or the derived ETag) instead of querying the table to see whether anything changed.
+public class EmployeeChangeTracker {
+
+	// Distinguishes versions issued by this process from those of a previous run
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong version = new AtomicLong();
+	private volatile long lastModified = System.currentTimeMillis();
+	private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+
+	public long getVersion() {
+		return version.get();
+	}
+
+	// Time of the last committed write (or of startup), in epoch milliseconds
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public String getETag() {
+		return "\"" + epoch + "-" + version.get() + "\"";
+	}
+
+	// Run the listener after every committed write; it must be quick and must not throw
+	public void addCommitListener(Runnable listener) {
+		commitListeners.add(listener);
+	}
+
+	// Record a write; inside a transaction the version only moves after commit, so a rolled back
+	// write never invalidates anything
+	public void markChanged() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					bump();
+				}
+			});
+		} else {
+			bump();
+		}
+	}
+
+	private void bump() {
+		lastModified = System.currentTimeMillis();
+		version.incrementAndGet();
+		for (Runnable listener : commitListeners) {
+			listener.run();
+		}
+	}
+}
@@ -1,18 +1,95 @@
 package com.yaksha.assignment.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
+import javax.sql.DataSource;
+
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.yaksha.assignment.events.EmployeeChangeType;
+import com.yaksha.assignment.models.DepartmentSummary;
 import com.yaksha.assignment.models.Employee;
 
 public class EmployeeDAO {
 
+	// Rows per multi-row statement, keeping packets well below max_allowed_packet
+	private static final int UPSERT_CHUNK_SIZE = 500;
+
+	// Rows per JDBC batch (and savepoint) in insertEmployees
+	private static final int INSERT_BATCH_SIZE = 500;
+
+	// Width of the id window touched by one salary adjustment statement, bounding the work (and undo) of each
+	// statement. Rows stay locked until the surrounding transaction commits, however many statements it takes.
+	private static final int SALARY_ADJUSTMENT_CHUNK_SIZE = 1000;
+
+	// Rows fetched per round trip when streaming on drivers that support cursor fetching
+	private static final int STREAM_FETCH_SIZE = 500;
+
+	// Ids per IN list in getEmployeesByIds, bounding statement size for callers passing thousands of ids
+	private static final int IN_CHUNK_SIZE = 100;
+
 	private JdbcTemplate jdbcTemplate;
+	private final EmployeeChangeTracker changeTracker;
+	private final EmployeeOutbox outbox;
+
+	// Whether a unique key covers employee_code alone; on a partitioned table it also holds the partitioning
+	// column, and upsertEmployees could then insert the same code twice
+	private final boolean employeeCodesUnique;
+
+	// Maps a row of the Employee table, including its optimistic concurrency version
+	private final RowMapper<Employee> employeeRowMapper = new RowMapper<Employee>() {
+		@Override
+		public Employee mapRow(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
+			Employee employee = new Employee();
+			employee.setId(rs.getInt("id"));
+			employee.setName(rs.getString("name"));
+			employee.setDepartment(rs.getString("department"));
+			employee.setSalary(rs.getDouble("salary"));
+			employee.setVersion(rs.getInt("version"));
+			employee.setEmployeeCode(rs.getString("employee_code"));
+			return employee;
+		}
+	};
 
 	public EmployeeDAO(JdbcTemplate jdbcTemplate) {
+		this(jdbcTemplate, new EmployeeChangeTracker(), new EmployeeOutbox(jdbcTemplate));
+	}
+
+	public EmployeeDAO(JdbcTemplate jdbcTemplate, EmployeeChangeTracker changeTracker, EmployeeOutbox outbox) {
+		this(jdbcTemplate, changeTracker, outbox, true);
+	}
+
+	public EmployeeDAO(JdbcTemplate jdbcTemplate, EmployeeChangeTracker changeTracker, EmployeeOutbox outbox,
+			boolean employeeCodesUnique) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.changeTracker = changeTracker;
+		this.outbox = outbox;
+		this.employeeCodesUnique = employeeCodesUnique;
 	}
 
 	// Insert Employee
@@ -22,38 +99,474 @@ public class EmployeeDAO {
 			throw new IllegalArgumentException("Salary cannot be negative");
 		}
 		String sql = "INSERT INTO Employee (name, department, salary) VALUES (?, ?, ?)";
-		jdbcTemplate.update(sql, employee.getName(), employee.getDepartment(), employee.getSalary());
+		// Read back the generated id so the change event can name the new row
+		jdbcTemplate.execute(new PreparedStatementCreator() {
+			@Override
+			public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+				PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+				bindInsert(statement, employee);
+				return statement;
+			}
+		}, new PreparedStatementCallback<Void>() {
+			@Override
+			public Void doInPreparedStatement(PreparedStatement statement) throws SQLException {
+				statement.executeUpdate();
+				assignGeneratedIds(statement, Collections.singletonList(employee), Collections.singletonList(0));
+				return null;
+			}
+		});
+		// The stored row starts at version 0 whatever the caller's object carried
+		employee.setVersion(0);
+		outbox.append(EmployeeChangeType.INSERTED, employee);
+		changeTracker.markChanged();
+	}
+
+	// Update Employee only if nobody else changed it since it was read (compare-and-set on version). The
+	// caller's object moves to the new version once the change has committed, so after a rollback (also of an
+	// enclosing EmployeeTransaction) it still matches the stored row and can be retried as it is.
+	public void updateEmployee(Employee employee) {
+		// Perform business validation (negative salary check)
+		if (employee.getSalary() < 0) {
+			throw new IllegalArgumentException("Salary cannot be negative");
+		}
+		String sql = "UPDATE Employee SET name = ?, department = ?, salary = ?, version = version + 1 "
+				+ "WHERE id = ? AND version = ?";
+		int updated = jdbcTemplate.update(sql, employee.getName(), employee.getDepartment(), employee.getSalary(),
+				employee.getId(), employee.getVersion());
+		if (updated == 0) {
+			throw new OptimisticLockingFailureException("Employee with ID " + employee.getId()
+					+ " was modified or deleted concurrently (expected version " + employee.getVersion() + ")");
+		}
+		int newVersion = employee.getVersion() + 1;
+		Employee updatedEmployee = new Employee(employee);
+		updatedEmployee.setVersion(newVersion);
+		outbox.append(EmployeeChangeType.UPDATED, updatedEmployee);
+		changeTracker.markChanged();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					employee.setVersion(newVersion);
+				}
+			});
+		} else {
+			employee.setVersion(newVersion);
+		}
+	}
+
+	// Delete Employee only if it is still at the version the caller read
+	public void deleteEmployee(int id, int version) {
+		String sql = "DELETE FROM Employee WHERE id = ? AND version = ?";
+		int deleted = jdbcTemplate.update(sql, id, version);
+		if (deleted == 0) {
+			throw new OptimisticLockingFailureException("Employee with ID " + id
+					+ " was modified or deleted concurrently (expected version " + version + ")");
+		}
+		Employee deletedEmployee = new Employee();
+		deletedEmployee.setId(id);
+		outbox.append(EmployeeChangeType.DELETED, deletedEmployee);
+		changeTracker.markChanged();
+	}
+
+	// Insert many employees in one transaction. Each chunk runs under a savepoint; if it fails, the chunk is
+	// rolled back to the savepoint and retried row by row, each row under its own savepoint, so only the bad
+	// rows are dropped and reported while the rest of the batch stays in the transaction.
+	public BatchInsertResult insertEmployees(List<Employee> employees) {
+		String sql = "INSERT INTO Employee (name, department, salary) VALUES (?, ?, ?)";
+		List<BatchInsertResult.Failure> failures = new ArrayList<>();
+		List<Employee> inserted = new ArrayList<>();
+
+		// Savepoints live on the connection of the surrounding (aspect-managed) transaction
+		DataSource dataSource = jdbcTemplate.getDataSource();
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+			DataSourceUtils.applyTransactionTimeout(statement, dataSource);
+			for (int from = 0; from < employees.size(); from += INSERT_BATCH_SIZE) {
+				// Perform business validation (negative salary check) per row
+				List<Integer> valid = new ArrayList<>();
+				for (int index = from; index < Math.min(from + INSERT_BATCH_SIZE, employees.size()); index++) {
+					if (employees.get(index).getSalary() < 0) {
+						failures.add(new BatchInsertResult.Failure(index, employees.get(index),
+								"Salary cannot be negative"));
+					} else {
+						valid.add(index);
+					}
+				}
+				if (valid.isEmpty()) {
+					continue;
+				}
+
+				Savepoint chunkSavepoint = connection.setSavepoint();
+				try {
+					for (int index : valid) {
+						bindInsert(statement, employees.get(index));
+						statement.addBatch();
+					}
+					statement.executeBatch();
+					assignGeneratedIds(statement, employees, valid);
+					connection.releaseSavepoint(chunkSavepoint);
+					for (int index : valid) {
+						inserted.add(employees.get(index));
+					}
+				} catch (SQLException chunkFailure) {
+					connection.rollback(chunkSavepoint);
+					statement.clearBatch();
+					for (int index : valid) {
+						Savepoint rowSavepoint = connection.setSavepoint();
+						try {
+							bindInsert(statement, employees.get(index));
+							statement.executeUpdate();
+							assignGeneratedIds(statement, employees, Collections.singletonList(index));
+							connection.releaseSavepoint(rowSavepoint);
+							inserted.add(employees.get(index));
+						} catch (SQLException rowFailure) {
+							connection.rollback(rowSavepoint);
+							failures.add(new BatchInsertResult.Failure(index, employees.get(index),
+									rowFailure.getMessage()));
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw jdbcTemplate.getExceptionTranslator().translate("insertEmployees", sql, e);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+
+		if (!inserted.isEmpty()) {
+			for (Employee employee : inserted) {
+				employee.setVersion(0);
+			}
+			outbox.appendAll(EmployeeChangeType.INSERTED, inserted);
+			changeTracker.markChanged();
+		}
+		failures.sort(Comparator.comparingInt(BatchInsertResult.Failure::getIndex));
+		return new BatchInsertResult(inserted.size(), failures);
+	}
+
+	// Insert or update employees by their natural key (employee code) in chunked multi-row statements
+	public UpsertResult upsertEmployees(List<Employee> employees) {
+		// Neither the locking read nor ON DUPLICATE KEY stops a concurrent insert of the same code under
+		// READ COMMITTED unless the database itself enforces unique codes
+		if (!employeeCodesUnique) {
+			throw new IllegalStateException("upsertEmployees requires a unique key on employee_code alone, "
+					+ "which a partitioned Employee table lacks");
+		}
+		// Perform business validation up front so a bad record never leaves a half-applied chunk
+		Set<String> codes = new HashSet<>();
+		for (Employee employee : employees) {
+			if (employee.getEmployeeCode() == null || employee.getEmployeeCode().isEmpty()) {
+				throw new IllegalArgumentException("Employee code is required for upsert");
+			}
+			if (!codes.add(employee.getEmployeeCode())) {
+				throw new IllegalArgumentException("Duplicate employee code in batch: " + employee.getEmployeeCode());
+			}
+			if (employee.getSalary() < 0) {
+				throw new IllegalArgumentException("Salary cannot be negative");
+			}
+		}
+
+		int inserted = 0;
+		int updated = 0;
+		int unchanged = 0;
+		for (int from = 0; from < employees.size(); from += UPSERT_CHUNK_SIZE) {
+			List<Employee> chunk = employees.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, employees.size()));
+
+			// Lock the rows that already exist so the counts below stay exact until commit
+			Map<String, Employee> existing = new HashMap<>();
+			String selectSql = "SELECT * FROM Employee WHERE employee_code IN (" + placeholders(chunk.size(), "?")
+					+ ") FOR UPDATE";
+			for (Employee current : jdbcTemplate.query(selectSql, employeeRowMapper, employeeCodes(chunk))) {
+				existing.put(current.getEmployeeCode(), current);
+			}
+
+			// Only new or changed rows are sent to the database
+			List<Employee> added = new ArrayList<>();
+			List<Employee> modified = new ArrayList<>();
+			for (Employee employee : chunk) {
+				Employee current = existing.get(employee.getEmployeeCode());
+				if (current == null) {
+					inserted++;
+					added.add(employee);
+				} else {
+					employee.setId(current.getId());
+					if (sameValues(current, employee)) {
+						unchanged++;
+						employee.setVersion(current.getVersion());
+					} else {
+						updated++;
+						employee.setVersion(current.getVersion() + 1);
+						modified.add(employee);
+					}
+				}
+			}
+
+			// Rows already locked above are updated by primary key. Matching them through the employee_code key
+			// (ON DUPLICATE KEY) would not work on a partitioned table, where that key also contains the
+			// partitioning column and a moved row would be inserted a second time.
+			if (!modified.isEmpty()) {
+				String updateSql = "UPDATE Employee SET name = ?, department = ?, salary = ?, version = version + 1 "
+						+ "WHERE id = ?";
+				List<Object[]> rows = new ArrayList<>(modified.size());
+				for (Employee employee : modified) {
+					rows.add(new Object[] { employee.getName(), employee.getDepartment(), employee.getSalary(),
+							employee.getId() });
+				}
+				jdbcTemplate.batchUpdate(updateSql, rows);
+			}
+
+			// New rows go in one multi-row statement; a row inserted concurrently under the same code since the
+			// locking read above is updated instead
+			if (!added.isEmpty()) {
+				String upsertSql = "INSERT INTO Employee (employee_code, name, department, salary) VALUES "
+						+ placeholders(added.size(), "(?, ?, ?, ?)")
+						+ " ON DUPLICATE KEY UPDATE version = version + 1, name = VALUES(name), "
+						+ "department = VALUES(department), salary = VALUES(salary)";
+				Object[] args = new Object[added.size() * 4];
+				int i = 0;
+				for (Employee employee : added) {
+					args[i++] = employee.getEmployeeCode();
+					args[i++] = employee.getName();
+					args[i++] = employee.getDepartment();
+					args[i++] = employee.getSalary();
+				}
+				jdbcTemplate.update(upsertSql, args);
+
+				// New rows need their generated ids before they can be published as change events
+				Map<String, Employee> byCode = new HashMap<>();
+				for (Employee employee : added) {
+					byCode.put(employee.getEmployeeCode(), employee);
+				}
+				String idSql = "SELECT * FROM Employee WHERE employee_code IN (" + placeholders(added.size(), "?")
+						+ ")";
+				for (Employee stored : jdbcTemplate.query(idSql, employeeRowMapper, employeeCodes(added))) {
+					Employee employee = byCode.get(stored.getEmployeeCode());
+					employee.setId(stored.getId());
+					employee.setVersion(stored.getVersion());
+				}
+			}
+			outbox.appendAll(EmployeeChangeType.INSERTED, added);
+			outbox.appendAll(EmployeeChangeType.UPDATED, modified);
+		}
+		if (inserted + updated > 0) {
+			changeTracker.markChanged();
+		}
+		return new UpsertResult(inserted, updated, unchanged);
+	}
+
+	// Apply a percentage and/or fixed salary adjustment to every employee of a department in one statement
+	public int adjustSalariesByDepartment(String department, double percentage, double fixedAmount) {
+		double factor = 1 + percentage / 100;
+		// Perform business validation (negative salary check) on locked rows before touching any of them. The
+		// lookup goes through idx_employee_department, so only this department's rows are locked, not the table.
+		String checkSql = "SELECT id, salary FROM Employee WHERE department = ? FOR UPDATE";
+		long[] check = lockForSalaryAdjustment(checkSql, factor, fixedAmount, department);
+		if (check[0] > 0) {
+			throw new IllegalArgumentException("Salary cannot be negative");
+		}
+		String sql = "UPDATE Employee SET salary = salary * ? + ?, version = version + 1 WHERE department = ? "
+				+ "AND salary * ? + ? >= 0";
+		int adjusted = jdbcTemplate.update(sql, factor, fixedAmount, department, factor, fixedAmount);
+		if (adjusted > 0) {
+			Map<String, Object> scope = new LinkedHashMap<>();
+			scope.put("department", department);
+			scope.put("percentage", percentage);
+			scope.put("fixedAmount", fixedAmount);
+			outbox.appendScoped(EmployeeChangeType.SALARIES_ADJUSTED, scope);
+			changeTracker.markChanged();
+		}
+		return adjusted;
+	}
+
+	// Apply a percentage and/or fixed salary adjustment to an inclusive id range, one key window at a time
+	public int adjustSalariesByIdRange(int fromId, int toId, double percentage, double fixedAmount) {
+		double factor = 1 + percentage / 100;
+		// Perform business validation (negative salary check) on locked rows before touching any of them, and
+		// narrow the range to the ids that actually exist so sparse ranges do not issue empty statements
+		String checkSql = "SELECT id, salary FROM Employee WHERE id BETWEEN ? AND ? FOR UPDATE";
+		long[] check = lockForSalaryAdjustment(checkSql, factor, fixedAmount, fromId, toId);
+		if (check[0] > 0) {
+			throw new IllegalArgumentException("Salary cannot be negative");
+		}
+		String sql = "UPDATE Employee SET salary = salary * ? + ?, version = version + 1 WHERE id BETWEEN ? AND ? "
+				+ "AND salary * ? + ? >= 0";
+		int adjusted = 0;
+		for (long chunkStart = check[1]; chunkStart <= check[2]; chunkStart += SALARY_ADJUSTMENT_CHUNK_SIZE) {
+			long chunkEnd = Math.min(chunkStart + SALARY_ADJUSTMENT_CHUNK_SIZE - 1, check[2]);
+			adjusted += jdbcTemplate.update(sql, factor, fixedAmount, chunkStart, chunkEnd, factor, fixedAmount);
+		}
+		if (adjusted > 0) {
+			Map<String, Object> scope = new LinkedHashMap<>();
+			scope.put("fromId", fromId);
+			scope.put("toId", toId);
+			scope.put("percentage", percentage);
+			scope.put("fixedAmount", fixedAmount);
+			outbox.appendScoped(EmployeeChangeType.SALARIES_ADJUSTED, scope);
+			changeTracker.markChanged();
+		}
+		return adjusted;
+	}
+
+	// Lock the rows selected by a salary adjustment's check query (id and salary columns), returning how many the
+	// adjustment would make negative and the lowest and highest id locked (an empty window when none were).
+	// Under READ COMMITTED rows inserted after this read are not locked, so the UPDATE repeats the check as a
+	// guard: such a row is adjusted only if it stays non-negative.
+	private long[] lockForSalaryAdjustment(String checkSql, double factor, double fixedAmount, Object... args) {
+		long[] check = { 0, Long.MAX_VALUE, Long.MIN_VALUE };
+		jdbcTemplate.query(checkSql, new RowCallbackHandler() {
+			@Override
+			public void processRow(ResultSet rs) throws SQLException {
+				if (rs.getDouble("salary") * factor + fixedAmount < 0) {
+					check[0]++;
+				}
+				long id = rs.getLong("id");
+				check[1] = Math.min(check[1], id);
+				check[2] = Math.max(check[2], id);
+			}
+		}, args);
+		return check;
 	}
 
 	// Retrieve all employees
 	public List<Employee> getAllEmployees() {
 		String sql = "SELECT * FROM Employee";
-		return jdbcTemplate.query(sql, new RowMapper<Employee>() {
-			@Override
-			public Employee mapRow(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
-				Employee employee = new Employee();
-				employee.setId(rs.getInt("id"));
-				employee.setName(rs.getString("name"));
-				employee.setDepartment(rs.getString("department"));
-				employee.setSalary(rs.getDouble("salary"));
-				return employee;
-			}
-		});
+		return jdbcTemplate.query(sql, employeeRowMapper);
 	}
 
 	// Retrieve employee by ID
 	public Employee getEmployeeById(int id) {
 		String sql = "SELECT * FROM Employee WHERE id = ?";
-		return jdbcTemplate.queryForObject(sql, new Object[] { id }, new RowMapper<Employee>() {
+		return jdbcTemplate.queryForObject(sql, new Object[] { id }, employeeRowMapper);
+	}
+
+	// Retrieve many employees by id in id order, IN_CHUNK_SIZE ids per query, all in the one transaction the
+	// advice wraps around this call. Unknown ids are skipped and duplicates are looked up once.
+	public List<Employee> getEmployeesByIds(Collection<Integer> ids) {
+		List<Integer> distinct = new ArrayList<>(new TreeSet<>(ids));
+		List<Employee> employees = new ArrayList<>(distinct.size());
+		for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+			List<Integer> chunk = distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()));
+			String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+			String sql = "SELECT * FROM Employee WHERE id IN (" + placeholders + ") ORDER BY id";
+			employees.addAll(jdbcTemplate.query(sql, employeeRowMapper, chunk.toArray()));
+		}
+		return employees;
+	}
+
+	// Lookup by id when the caller also knows the department. On a table partitioned by department the extra
+	// predicate lets MySQL read a single partition instead of probing the primary key in every one.
+	public Employee getEmployeeById(int id, String department) {
+		String sql = "SELECT * FROM Employee WHERE id = ? AND department = ?";
+		return jdbcTemplate.queryForObject(sql, new Object[] { id, department }, employeeRowMapper);
+	}
+
+	// Retrieve the employees of one department
+	public List<Employee> getEmployeesByDepartment(String department) {
+		String sql = "SELECT * FROM Employee WHERE department = ?";
+		return jdbcTemplate.query(sql, employeeRowMapper, department);
+	}
+
+	// Headcount and salary totals per department
+	public List<DepartmentSummary> getDepartmentSummaries() {
+		String sql = "SELECT department, COUNT(*) AS headcount, SUM(salary) AS total_salary, "
+				+ "MIN(salary) AS min_salary, MAX(salary) AS max_salary FROM Employee GROUP BY department";
+		return jdbcTemplate.query(sql, new RowMapper<DepartmentSummary>() {
+			@Override
+			public DepartmentSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+				return new DepartmentSummary(rs.getString("department"), rs.getLong("headcount"),
+						rs.getDouble("total_salary"), rs.getDouble("min_salary"), rs.getDouble("max_salary"));
+			}
+		});
+	}
+
+	// Retrieve one page of employees ordered by id, starting after the last id of the previous page
+	public List<Employee> getEmployeesAfterId(int afterId, int limit) {
+		String sql = "SELECT * FROM Employee WHERE id > ? ORDER BY id LIMIT ?";
+		return jdbcTemplate.query(sql, employeeRowMapper, afterId, limit);
+	}
+
+	// Typeahead lookup: employees whose name starts with the prefix, alphabetically. The LIKE pattern has no
+	// leading wildcard, so it is answered by a range scan of idx_employee_name instead of a table scan.
+	public List<Employee> getEmployeesByNamePrefix(String prefix, int limit) {
+		String sql = "SELECT * FROM Employee WHERE name LIKE ? ORDER BY name, id LIMIT ?";
+		return jdbcTemplate.query(sql, employeeRowMapper, escapeLike(prefix) + "%", limit);
+	}
+
+	// Hand every employee to the consumer as it comes off the cursor, without building a list
+	public void streamAllEmployees(Consumer<Employee> consumer) {
+		String sql = "SELECT * FROM Employee ORDER BY id";
+		streamQuery(sql, consumer);
+	}
+
+	// Stream the rows of one partition (see EmployeePartitionMaintenance), for exports and archiving
+	public void streamEmployeesInPartition(String partition, Consumer<Employee> consumer) {
+		String sql = "SELECT * FROM Employee PARTITION (" + EmployeePartitionMaintenance.checkName(partition)
+				+ ") ORDER BY id";
+		streamQuery(sql, consumer);
+	}
+
+	private void streamQuery(String sql, Consumer<Employee> consumer) {
+		jdbcTemplate.query(new PreparedStatementCreator() {
+			@Override
+			public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+				PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY);
+				// MySQL Connector/J only streams row by row with this sentinel; otherwise it buffers everything
+				boolean mysql = connection.getMetaData().getDatabaseProductName().equals("MySQL");
+				statement.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+				return statement;
+			}
+		}, new RowCallbackHandler() {
 			@Override
-			public Employee mapRow(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
-				Employee employee = new Employee();
-				employee.setId(rs.getInt("id"));
-				employee.setName(rs.getString("name"));
-				employee.setDepartment(rs.getString("department"));
-				employee.setSalary(rs.getDouble("salary"));
-				return employee;
+			public void processRow(ResultSet rs) throws SQLException {
+				consumer.accept(employeeRowMapper.mapRow(rs, 0));
 			}
 		});
 	}
-}
\ No newline at end of file
+
+	// Match %, _ and the escape character itself literally (backslash is the default LIKE escape)
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private static void bindInsert(PreparedStatement statement, Employee employee) throws SQLException {
+		statement.setString(1, employee.getName());
+		statement.setString(2, employee.getDepartment());
+		statement.setDouble(3, employee.getSalary());
+	}
+
+	// Copy auto-increment keys back onto the employees just inserted, in statement order
+	private static void assignGeneratedIds(PreparedStatement statement, List<Employee> employees,
+			List<Integer> indexes) throws SQLException {
+		try (ResultSet keys = statement.getGeneratedKeys()) {
+			for (int i = 0; i < indexes.size() && keys.next(); i++) {
+				employees.get(indexes.get(i)).setId(keys.getInt(1));
+			}
+		}
+	}
+
+	private static boolean sameValues(Employee current, Employee incoming) {
+		return current.getName().equals(incoming.getName()) && current.getDepartment().equals(incoming.getDepartment())
+				&& Double.compare(current.getSalary(), incoming.getSalary()) == 0;
+	}
+
+	private static Object[] employeeCodes(List<Employee> employees) {
+		Object[] codes = new Object[employees.size()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = employees.get(i).getEmployeeCode();
+		}
+		return codes;
+	}
+
+	// Repeat a placeholder group, e.g. "?, ?, ?" or "(?, ?), (?, ?)"
+	private static String placeholders(int count, String group) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(group);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,79 @@
+package com.yaksha.assignment.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yaksha.assignment.events.EmployeeChangeType;
+import com.yaksha.assignment.invalidation.Invalidation;
+import com.yaksha.assignment.invalidation.InvalidationPublisher;
+import com.yaksha.assignment.models.Employee;
+
+// Appends change events to the EmployeeOutbox table. EmployeeDAO calls it from its write methods, so the
+// event rows commit or roll back together with the change they describe. With an InvalidationPublisher it
+// also announces every change to the caches of other instances once the transaction has committed.
+public class EmployeeOutbox {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final InvalidationPublisher invalidationPublisher;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public EmployeeOutbox(JdbcTemplate jdbcTemplate) {
+		this(jdbcTemplate, null);
+	}
+
+	public EmployeeOutbox(JdbcTemplate jdbcTemplate, InvalidationPublisher invalidationPublisher) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.invalidationPublisher = invalidationPublisher;
+	}
+
+	// Record a single-row change
+	public void append(EmployeeChangeType type, Employee employee) {
+		appendAll(type, Collections.singletonList(employee));
+	}
+
+	// Record the same kind of change for many rows in one batch
+	public void appendAll(EmployeeChangeType type, List<Employee> employees) {
+		if (employees.isEmpty()) {
+			return;
+		}
+		String sql = "INSERT INTO EmployeeOutbox (employee_id, event_type, payload) VALUES (?, ?, ?)";
+		List<Object[]> rows = new ArrayList<>(employees.size());
+		for (Employee employee : employees) {
+			rows.add(new Object[] { employee.getId(), type.name(),
+					type == EmployeeChangeType.DELETED ? null : toJson(employee) });
+		}
+		jdbcTemplate.batchUpdate(sql, rows);
+		if (invalidationPublisher != null) {
+			for (Employee employee : employees) {
+				invalidationPublisher.record(type == EmployeeChangeType.DELETED ? Invalidation.deleted(employee.getId())
+						: new Invalidation(employee.getId(), employee.getVersion()));
+			}
+		}
+	}
+
+	// Record a set-based change described by its scope rather than by rows
+	public void appendScoped(EmployeeChangeType type, Map<String, Object> scope) {
+		String sql = "INSERT INTO EmployeeOutbox (employee_id, event_type, payload) VALUES (NULL, ?, ?)";
+		String payload = toJson(scope);
+		jdbcTemplate.update(sql, type.name(), payload);
+		if (invalidationPublisher != null) {
+			// Other caches re-read just the adjusted rows; a truncated partition has no row-level scope to re-read
+			invalidationPublisher.record(type == EmployeeChangeType.SALARIES_ADJUSTED ? Invalidation.scoped(payload)
+					: Invalidation.allRows());
+		}
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize outbox payload", e);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.yaksha.assignment.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.yaksha.assignment.events.EmployeeChangeType;
+import com.yaksha.assignment.models.Employee;
+
+// Maintenance of a partitioned Employee table (MySQL, created with -Demployee.schema.partitioning=...), one
+// partition at a time. Truncating a partition drops its rows without scanning or row-locking the rest of the
+// table (it only holds the table's metadata lock briefly), which makes it the cheap way to archive an old id range.
+public class EmployeePartitionMaintenance {
+
+	// Partition names are spliced into SQL, so only plain identifiers are accepted
+	private static final Pattern PARTITION_NAME = Pattern.compile("[A-Za-z0-9_]{1,64}");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeOutbox outbox;
+	private final EmployeeChangeTracker changeTracker;
+
+	private final RowMapper<PartitionInfo> partitionRowMapper = new RowMapper<PartitionInfo>() {
+		@Override
+		public PartitionInfo mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return new PartitionInfo(rs.getString("PARTITION_NAME"), rs.getString("PARTITION_METHOD"),
+					rs.getString("PARTITION_EXPRESSION"), rs.getString("PARTITION_DESCRIPTION"),
+					rs.getLong("TABLE_ROWS"), rs.getLong("DATA_LENGTH"));
+		}
+	};
+
+	public EmployeePartitionMaintenance(JdbcTemplate jdbcTemplate, EmployeeDAO employeeDAO, EmployeeOutbox outbox,
+			EmployeeChangeTracker changeTracker) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.employeeDAO = employeeDAO;
+		this.outbox = outbox;
+		this.changeTracker = changeTracker;
+	}
+
+	// Partitions in definition order; empty when the table is not partitioned (or not on MySQL)
+	public List<PartitionInfo> listPartitions() {
+		String sql = "SELECT PARTITION_NAME, PARTITION_METHOD, PARTITION_EXPRESSION, PARTITION_DESCRIPTION, "
+				+ "TABLE_ROWS, DATA_LENGTH FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+				+ "AND TABLE_NAME = 'Employee' AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+		try {
+			return jdbcTemplate.query(sql, partitionRowMapper);
+		} catch (RuntimeException e) {
+			// The embedded database has no partition metadata
+			return Collections.emptyList();
+		}
+	}
+
+	// Stream one partition's rows to the consumer, returning how many were exported
+	public long exportPartition(String partition, Consumer<Employee> consumer) {
+		requirePartition(partition);
+		AtomicLong exported = new AtomicLong();
+		employeeDAO.streamEmployeesInPartition(partition, employee -> {
+			consumer.accept(employee);
+			exported.incrementAndGet();
+		});
+		return exported.get();
+	}
+
+	// Remove every row of one partition. TRUNCATE PARTITION is DDL and commits on its own, so the change event
+	// is recorded right after it rather than in the same transaction.
+	public void truncatePartition(String partition) {
+		requirePartition(partition);
+		String sql = "ALTER TABLE Employee TRUNCATE PARTITION " + partition;
+		System.out.println("Executing SQL: " + sql);
+		jdbcTemplate.execute(sql);
+		outbox.appendScoped(EmployeeChangeType.PARTITION_TRUNCATED,
+				Collections.<String, Object>singletonMap("partition", partition));
+		changeTracker.markChanged();
+	}
+
+	// Validate a partition name before it is used in SQL
+	static String checkName(String partition) {
+		if (partition == null || !PARTITION_NAME.matcher(partition).matches()) {
+			throw new IllegalArgumentException("Invalid partition name: " + partition);
+		}
+		return partition;
+	}
+
+	private void requirePartition(String partition) {
+		checkName(partition);
+		for (PartitionInfo info : listPartitions()) {
+			if (info.getName().equals(partition)) {
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Employee has no partition named " + partition);
+	}
+}
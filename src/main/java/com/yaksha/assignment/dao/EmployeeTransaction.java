@@ -0,0 +1,32 @@
+package com.yaksha.assignment.dao;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Unit of work: runs several EmployeeDAO calls in one transaction with a single commit.
+// The transaction advice sees the enclosing transaction and joins it instead of starting its own.
+public class EmployeeTransaction {
+
+	private final TransactionTemplate transactionTemplate;
+	private final EmployeeDAO employeeDAO;
+
+	public EmployeeTransaction(TransactionTemplate transactionTemplate, EmployeeDAO employeeDAO) {
+		this.transactionTemplate = transactionTemplate;
+		this.employeeDAO = employeeDAO;
+	}
+
+	// Run work that produces no result, e.g. employeeTx.run(dao -> { ... })
+	public void run(Consumer<EmployeeDAO> work) {
+		call(dao -> {
+			work.accept(dao);
+			return null;
+		});
+	}
+
+	// Run work and return its result; any exception rolls back everything done in the unit of work
+	public <T> T call(Function<EmployeeDAO, T> work) {
+		return transactionTemplate.execute(status -> work.apply(employeeDAO));
+	}
+}
@@ -0,0 +1,55 @@
+package com.yaksha.assignment.dao;
+
+// One partition of the Employee table as reported by information_schema.PARTITIONS
+public class PartitionInfo {
+
+	private final String name;
+	private final String method;
+	private final String expression;
+	private final String description;
+	private final long rows;
+	private final long dataBytes;
+
+	public PartitionInfo(String name, String method, String expression, String description, long rows,
+			long dataBytes) {
+		this.name = name;
+		this.method = method;
+		this.expression = expression;
+		this.description = description;
+		this.rows = rows;
+		this.dataBytes = dataBytes;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	// RANGE, KEY, ...
+	public String getMethod() {
+		return method;
+	}
+
+	public String getExpression() {
+		return expression;
+	}
+
+	// Upper bound of a RANGE partition (MAXVALUE for the last one); null for KEY partitions
+	public String getDescription() {
+		return description;
+	}
+
+	// Estimated by InnoDB, not exact
+	public long getRows() {
+		return rows;
+	}
+
+	public long getDataBytes() {
+		return dataBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "PartitionInfo [name=" + name + ", method=" + method + ", expression=" + expression
+				+ ", description=" + description + ", rows=" + rows + ", dataBytes=" + dataBytes + "]";
+	}
+}
@@ -0,0 +1,32 @@
+package com.yaksha.assignment.dao;
+
+// Outcome of a bulk upsert: how many employees were new, changed or already up to date
+public class UpsertResult {
+
+	private final int inserted;
+	private final int updated;
+	private final int unchanged;
+
+	public UpsertResult(int inserted, int updated, int unchanged) {
+		this.inserted = inserted;
+		this.updated = updated;
+		this.unchanged = unchanged;
+	}
+
+	public int getInserted() {
+		return inserted;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public int getUnchanged() {
+		return unchanged;
+	}
+
+	@Override
+	public String toString() {
+		return "UpsertResult [inserted=" + inserted + ", updated=" + updated + ", unchanged=" + unchanged + "]";
+	}
+}
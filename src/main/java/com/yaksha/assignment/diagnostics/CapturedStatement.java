@@ -0,0 +1,34 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.util.Arrays;
+
+// A statement as run on the connection: its SQL, bound parameters (in index order) and execution time
+public class CapturedStatement {
+
+	private final String sql;
+	private final Object[] params;
+	private final long nanos;
+
+	public CapturedStatement(String sql, Object[] params, long nanos) {
+		this.sql = sql;
+		this.params = params;
+		this.nanos = nanos;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public Object[] getParams() {
+		return params;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	@Override
+	public String toString() {
+		return "CapturedStatement [sql=" + sql + ", params=" + Arrays.toString(params) + ", nanos=" + nanos + "]";
+	}
+}
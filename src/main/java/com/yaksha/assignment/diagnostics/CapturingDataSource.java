@@ -0,0 +1,91 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Diagnostics wrapper around the real DataSource: connections and statements are proxied so that, while a
+// StatementCapture is active on the thread, every executed statement is recorded with its SQL, bound
+// parameters and execution time. Only installed when query plan diagnostics are switched on.
+public class CapturingDataSource extends DelegatingDataSource {
+
+	private final StatementCapture capture;
+
+	public CapturingDataSource(DataSource targetDataSource, StatementCapture capture) {
+		super(targetDataSource);
+		this.capture = capture;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrapConnection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrapConnection(super.getConnection(username, password));
+	}
+
+	private Connection wrapConnection(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					Object result = invoke(connection, method, args);
+					switch (method.getName()) {
+					case "createStatement":
+						return wrapStatement((Statement) result, Statement.class, null);
+					case "prepareStatement":
+						return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+					case "prepareCall":
+						return wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+					default:
+						return result;
+					}
+				});
+	}
+
+	private Object wrapStatement(Statement statement, Class<?> type, String preparedSql) {
+		// Parameters bound so far, by index; a statement is only used by one thread at a time
+		Map<Integer, Object> params = new TreeMap<>();
+		return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			String name = method.getName();
+			if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+					&& args[0] instanceof Integer) {
+				params.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+			} else if ("clearParameters".equals(name)) {
+				params.clear();
+			}
+			if (!name.startsWith("execute") || !capture.isActive()) {
+				return invoke(statement, method, args);
+			}
+			String sql = preparedSql != null ? preparedSql
+					: args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+			long start = System.nanoTime();
+			try {
+				return invoke(statement, method, args);
+			} finally {
+				if (sql != null) {
+					capture.record(new CapturedStatement(sql, params.values().toArray(), System.nanoTime() - start));
+				}
+			}
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
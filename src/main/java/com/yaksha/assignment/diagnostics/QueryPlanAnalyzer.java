@@ -0,0 +1,224 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+// Reads query plans and SQL text: statement shapes for grouping, full scans and filesorts in a plan, and a
+// suggested index for the columns a badly planned statement filters and sorts on. The suggestion is a
+// heuristic from the statement text (equality columns, then one range column, then sort columns); it still
+// needs a look at selectivity before being applied.
+public final class QueryPlanAnalyzer {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\((?:\\?, ?)*\\?\\)");
+	private static final Pattern VALUES_LIST = Pattern.compile("(?i)\\bVALUES (\\([^()]*\\))(?:, ?\\([^()]*\\))+");
+	private static final Pattern TABLE = Pattern.compile("(?i)\\b(?:FROM|UPDATE)\\s+(\\w+)");
+	private static final Pattern WHERE = Pattern
+			.compile("(?i)\\bWHERE\\s+(.*?)(?=\\bORDER BY\\b|\\bGROUP BY\\b|\\bLIMIT\\b|\\bFOR UPDATE\\b|$)");
+	private static final Pattern ORDER_BY = Pattern.compile("(?i)\\bORDER BY\\s+(.*?)(?=\\bLIMIT\\b|\\bFOR UPDATE\\b|$)");
+	private static final Pattern CONDITION = Pattern
+			.compile("(?i)\\b(\\w+)\\s*(=|<=|>=|<>|!=|<|>|\\bLIKE\\b|\\bBETWEEN\\b|\\bIN\\b)");
+	private static final Pattern H2_TABLE_SCAN = Pattern.compile("(?i)/\\*\\s*[\\w\"]+\\.([\\w\"]+)\\.tableScan");
+
+	// What a plan says about how the statement reads its tables
+	public static class Findings {
+		private final List<String> fullScans = new ArrayList<>();
+		private boolean filesort;
+		private boolean temporaryTable;
+
+		// Tables read row by row (or whole-index scans, marked as such)
+		public List<String> getFullScans() {
+			return fullScans;
+		}
+
+		public boolean isFilesort() {
+			return filesort;
+		}
+
+		public boolean isTemporaryTable() {
+			return temporaryTable;
+		}
+
+		public boolean isProblematic() {
+			return !fullScans.isEmpty() || filesort || temporaryTable;
+		}
+	}
+
+	private QueryPlanAnalyzer() {
+	}
+
+	// Literal-free, whitespace-normalized SQL, so statements differing only in values or list lengths group
+	// together
+	public static String shapeOf(String sql) {
+		String shape = sql.trim().replaceAll("\\s+", " ");
+		shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+		shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+		shape = IN_LIST.matcher(shape).replaceAll("IN (...)");
+		return VALUES_LIST.matcher(shape).replaceAll("VALUES $1, ...");
+	}
+
+	// The plan with string and number literals in its conditions replaced by ?, so a stored plan does not keep
+	// the values (names, salaries) of the execution it was captured for. In MySQL's JSON plan only the
+	// condition fields are rewritten, leaving costs and row estimates alone.
+	public static String redactPlan(String plan, boolean json) {
+		if (!json) {
+			return redactLiterals(plan);
+		}
+		try {
+			JsonNode root = OBJECT_MAPPER.readTree(plan);
+			redactConditions(root);
+			return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unreadable JSON plan", e);
+		}
+	}
+
+	private static String redactLiterals(String text) {
+		String redacted = STRING_LITERAL.matcher(text).replaceAll("?");
+		return NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+	}
+
+	// attached_condition, index_condition and the like
+	private static void redactConditions(JsonNode node) {
+		if (node.isObject()) {
+			ObjectNode object = (ObjectNode) node;
+			Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				if (field.getKey().endsWith("condition") && field.getValue().isTextual()) {
+					field.setValue(new TextNode(redactLiterals(field.getValue().asText())));
+				} else {
+					redactConditions(field.getValue());
+				}
+			}
+		} else if (node.isArray()) {
+			for (JsonNode element : node) {
+				redactConditions(element);
+			}
+		}
+	}
+
+	// EXPLAIN covers reads and set-based writes; single-row INSERTs have no plan worth looking at
+	public static boolean isExplainable(String sql) {
+		String start = sql.trim().toUpperCase(Locale.ROOT);
+		return start.startsWith("SELECT") || start.startsWith("UPDATE") || start.startsWith("DELETE");
+	}
+
+	// MySQL's EXPLAIN FORMAT=JSON output
+	public static Findings analyzeJson(String plan) {
+		Findings findings = new Findings();
+		try {
+			collect(OBJECT_MAPPER.readTree(plan), findings);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unreadable JSON plan", e);
+		}
+		return findings;
+	}
+
+	// H2's textual plan, which marks full scans as tableScan and says "index sorted" when an index provides
+	// the order
+	public static Findings analyzeText(String sql, String plan) {
+		Findings findings = new Findings();
+		Matcher scan = H2_TABLE_SCAN.matcher(plan);
+		while (scan.find()) {
+			findings.fullScans.add(scan.group(1).replace("\"", ""));
+		}
+		findings.filesort = ORDER_BY.matcher(sql).find() && !plan.toLowerCase(Locale.ROOT).contains("index sorted");
+		return findings;
+	}
+
+	// CREATE INDEX statement covering the statement's filter and sort columns, or null if the plan is fine or
+	// the statement gives nothing to index on
+	public static String suggestIndex(String sql, Findings findings) {
+		if (!findings.isProblematic()) {
+			return null;
+		}
+		Matcher table = TABLE.matcher(sql);
+		if (!table.find()) {
+			return null;
+		}
+		Set<String> equalities = new LinkedHashSet<>();
+		String range = null;
+		Matcher where = WHERE.matcher(sql);
+		if (where.find()) {
+			Matcher condition = CONDITION.matcher(where.group(1));
+			while (condition.find()) {
+				String column = condition.group(1);
+				String operator = condition.group(2).toUpperCase(Locale.ROOT);
+				if ("AND".equalsIgnoreCase(column) || "OR".equalsIgnoreCase(column) || "NOT".equalsIgnoreCase(column)) {
+					continue;
+				}
+				if ("=".equals(operator) || "IN".equals(operator)) {
+					equalities.add(column);
+				} else if (range == null && !"<>".equals(operator) && !"!=".equals(operator)) {
+					range = column;
+				}
+			}
+		}
+		Set<String> columns = new LinkedHashSet<>(equalities);
+		if (range != null) {
+			columns.add(range);
+		} else if (findings.isFilesort()) {
+			// An index can only deliver the order when no range condition comes before the sort columns
+			Matcher orderBy = ORDER_BY.matcher(sql);
+			if (orderBy.find()) {
+				for (String column : orderBy.group(1).split(",")) {
+					columns.add(column.trim().split("\\s+")[0]);
+				}
+			}
+		}
+		columns.remove("");
+		// The primary key already covers lookups by id alone
+		if (columns.isEmpty() || (columns.size() == 1 && columns.contains("id"))) {
+			return null;
+		}
+		String tableName = table.group(1);
+		return "CREATE INDEX idx_" + tableName.toLowerCase(Locale.ROOT) + "_"
+				+ String.join("_", columns).toLowerCase(Locale.ROOT) + " ON " + tableName + " ("
+				+ String.join(", ", columns) + ")";
+	}
+
+	private static void collect(JsonNode node, Findings findings) {
+		if (node.isObject()) {
+			JsonNode accessType = node.get("access_type");
+			if (accessType != null) {
+				String tableName = node.path("table_name").asText("?");
+				if ("ALL".equals(accessType.asText())) {
+					findings.fullScans.add(tableName);
+				} else if ("index".equals(accessType.asText())) {
+					findings.fullScans.add(tableName + " (full index scan)");
+				}
+			}
+			if (node.path("using_filesort").asBoolean(false)) {
+				findings.filesort = true;
+			}
+			if (node.path("using_temporary_table").asBoolean(false)) {
+				findings.temporaryTable = true;
+			}
+			Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+			while (fields.hasNext()) {
+				collect(fields.next().getValue(), findings);
+			}
+		} else if (node.isArray()) {
+			for (JsonNode element : node) {
+				collect(element, findings);
+			}
+		}
+	}
+}
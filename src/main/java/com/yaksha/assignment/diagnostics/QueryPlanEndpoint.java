@@ -0,0 +1,29 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+// Actuator endpoint for the sampled query plans: GET /actuator/queryplans lists the slow statement shapes,
+// worst first, with full scans, filesorts and suggested indexes; DELETE starts the sampling over
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+	private final QueryPlanSampler sampler;
+
+	public QueryPlanEndpoint(QueryPlanSampler sampler) {
+		this.sampler = sampler;
+	}
+
+	@ReadOperation
+	public List<QueryShapeReport> queryPlans() {
+		return sampler.getReports();
+	}
+
+	@DeleteOperation
+	public void reset() {
+		sampler.clear();
+	}
+}
@@ -0,0 +1,218 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+// Query plan diagnostics for DAO calls. The transaction advice brackets each call with beginCapture and
+// endCapture; statements that ran longer than the slow threshold are grouped by shape, and each shape is
+// EXPLAINed (FORMAT=JSON on MySQL) on a background thread with the parameters of a slow execution, again
+// after replanMillis in case the data changed the plan. Disabled, beginCapture returns false and nothing is
+// recorded.
+public class QueryPlanSampler {
+
+	// Distinct shapes tracked; statements of further shapes are not sampled
+	private static final int MAX_SHAPES = 500;
+
+	private final StatementCapture capture;
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+	private final long slowNanos;
+	private final long replanMillis;
+	private final ConcurrentHashMap<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor explainer;
+	private volatile Boolean mySql;
+
+	public QueryPlanSampler(StatementCapture capture, JdbcTemplate jdbcTemplate, boolean enabled, long slowMillis,
+			long replanMillis) {
+		this.capture = capture;
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+		this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+		this.replanMillis = replanMillis;
+		// One EXPLAIN at a time, and a short queue: when it backs up, plans are simply captured later
+		this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+				runnable -> {
+					Thread thread = new Thread(runnable, "employee-query-explainer");
+					thread.setDaemon(true);
+					return thread;
+				});
+		if (enabled) {
+			System.out.println("Query plan sampling enabled for statements slower than " + slowMillis + " ms.");
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	// Start recording the statements of a DAO call; false when disabled or already inside a sampled call
+	public boolean beginCapture() {
+		return enabled && capture.begin();
+	}
+
+	// Stop recording and sample the slow statements of the call
+	public void endCapture(String methodName) {
+		long now = System.currentTimeMillis();
+		for (CapturedStatement statement : capture.end()) {
+			if (statement.getNanos() < slowNanos) {
+				continue;
+			}
+			String shape = QueryPlanAnalyzer.shapeOf(statement.getSql());
+			if (!shapes.containsKey(shape) && shapes.size() >= MAX_SHAPES) {
+				continue;
+			}
+			ShapeStats stats = shapes.computeIfAbsent(shape, ShapeStats::new);
+			if (stats.recordSlow(methodName, statement.getNanos(), now, replanMillis)) {
+				try {
+					explainer.execute(() -> explain(stats, statement));
+				} catch (RejectedExecutionException e) {
+					// Queue full (or stopping): a later slow execution of the shape tries again
+					stats.explainSkipped();
+				}
+			}
+		}
+	}
+
+	// Shapes by total slow time, worst first
+	public List<QueryShapeReport> getReports() {
+		List<QueryShapeReport> reports = new ArrayList<>(shapes.size());
+		for (ShapeStats stats : shapes.values()) {
+			reports.add(stats.report());
+		}
+		reports.sort(Comparator.comparingDouble(QueryShapeReport::getTotalMillis).reversed());
+		return reports;
+	}
+
+	public void clear() {
+		shapes.clear();
+	}
+
+	public void stop() {
+		explainer.shutdownNow();
+	}
+
+	private void explain(ShapeStats stats, CapturedStatement statement) {
+		String sql = statement.getSql();
+		if (!QueryPlanAnalyzer.isExplainable(sql)) {
+			stats.planFailed("statement type has no plan");
+			return;
+		}
+		try {
+			boolean json = isMySql();
+			String plan = jdbcTemplate.query((json ? "EXPLAIN FORMAT=JSON " : "EXPLAIN ") + sql,
+					new ResultSetExtractor<String>() {
+						@Override
+						public String extractData(ResultSet rs) throws SQLException {
+							StringBuilder text = new StringBuilder();
+							while (rs.next()) {
+								text.append(rs.getString(1)).append('\n');
+							}
+							return text.toString().trim();
+						}
+					}, statement.getParams());
+			String shape = QueryPlanAnalyzer.shapeOf(sql);
+			QueryPlanAnalyzer.Findings findings = json ? QueryPlanAnalyzer.analyzeJson(plan)
+					: QueryPlanAnalyzer.analyzeText(shape, plan);
+			// Only the shape's plan is kept, not the parameter values of the execution it was captured with
+			stats.planCaptured(QueryPlanAnalyzer.redactPlan(plan, json), findings,
+					QueryPlanAnalyzer.suggestIndex(shape, findings));
+		} catch (RuntimeException e) {
+			stats.planFailed(e.getMessage());
+		}
+	}
+
+	private boolean isMySql() {
+		Boolean current = mySql;
+		if (current == null) {
+			current = jdbcTemplate.execute(new ConnectionCallback<Boolean>() {
+				@Override
+				public Boolean doInConnection(Connection connection) throws SQLException {
+					return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT)
+							.contains("mysql");
+				}
+			});
+			mySql = current;
+		}
+		return current;
+	}
+
+	// Running totals and latest plan of one shape; guarded by "this"
+	private static class ShapeStats {
+		private final String shape;
+		private final Set<String> methods = new TreeSet<>();
+		private long slowExecutions;
+		private long totalNanos;
+		private long maxNanos;
+		private boolean explaining;
+		private long explainedAt;
+		private String plan;
+		private QueryPlanAnalyzer.Findings findings;
+		private String suggestedIndex;
+		private String explainError;
+
+		ShapeStats(String shape) {
+			this.shape = shape;
+		}
+
+		// Returns true when the caller should (re)capture the plan
+		synchronized boolean recordSlow(String methodName, long nanos, long now, long replanMillis) {
+			methods.add(methodName);
+			slowExecutions++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+			if (explaining || (explainedAt != 0 && now - explainedAt < replanMillis)) {
+				return false;
+			}
+			explaining = true;
+			return true;
+		}
+
+		synchronized void planCaptured(String plan, QueryPlanAnalyzer.Findings findings, String suggestedIndex) {
+			this.plan = plan;
+			this.findings = findings;
+			this.suggestedIndex = suggestedIndex;
+			this.explainError = null;
+			explained();
+		}
+
+		synchronized void planFailed(String error) {
+			this.explainError = error;
+			explained();
+		}
+
+		synchronized void explainSkipped() {
+			explaining = false;
+		}
+
+		private void explained() {
+			explaining = false;
+			explainedAt = System.currentTimeMillis();
+		}
+
+		synchronized QueryShapeReport report() {
+			List<String> fullScans = findings == null ? Collections.<String>emptyList()
+					: Collections.unmodifiableList(new ArrayList<>(findings.getFullScans()));
+			return new QueryShapeReport(shape, Collections.unmodifiableList(new ArrayList<>(methods)),
+					slowExecutions, totalNanos / 1e6, maxNanos / 1e6, plan, fullScans,
+					findings != null && findings.isFilesort(), findings != null && findings.isTemporaryTable(),
+					suggestedIndex, explainError);
+		}
+	}
+}
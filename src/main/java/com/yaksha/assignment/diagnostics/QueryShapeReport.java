@@ -0,0 +1,88 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.util.List;
+
+// Slow executions of one statement shape and what its latest plan says, as reported by the queryplans
+// actuator endpoint
+public class QueryShapeReport {
+
+	private final String shape;
+	private final List<String> methods;
+	private final long slowExecutions;
+	private final double totalMillis;
+	private final double maxMillis;
+	private final String plan;
+	private final List<String> fullScans;
+	private final boolean filesort;
+	private final boolean temporaryTable;
+	private final String suggestedIndex;
+	private final String explainError;
+
+	public QueryShapeReport(String shape, List<String> methods, long slowExecutions, double totalMillis,
+			double maxMillis, String plan, List<String> fullScans, boolean filesort, boolean temporaryTable,
+			String suggestedIndex, String explainError) {
+		this.shape = shape;
+		this.methods = methods;
+		this.slowExecutions = slowExecutions;
+		this.totalMillis = totalMillis;
+		this.maxMillis = maxMillis;
+		this.plan = plan;
+		this.fullScans = fullScans;
+		this.filesort = filesort;
+		this.temporaryTable = temporaryTable;
+		this.suggestedIndex = suggestedIndex;
+		this.explainError = explainError;
+	}
+
+	public String getShape() {
+		return shape;
+	}
+
+	// DAO methods that ran the statement
+	public List<String> getMethods() {
+		return methods;
+	}
+
+	public long getSlowExecutions() {
+		return slowExecutions;
+	}
+
+	public double getTotalMillis() {
+		return totalMillis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	// Latest EXPLAIN output (JSON on MySQL), null until captured
+	public String getPlan() {
+		return plan;
+	}
+
+	public List<String> getFullScans() {
+		return fullScans;
+	}
+
+	public boolean isFilesort() {
+		return filesort;
+	}
+
+	public boolean isTemporaryTable() {
+		return temporaryTable;
+	}
+
+	public String getSuggestedIndex() {
+		return suggestedIndex;
+	}
+
+	public String getExplainError() {
+		return explainError;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryShapeReport [shape=" + shape + ", slowExecutions=" + slowExecutions + ", maxMillis=" + maxMillis
+				+ ", fullScans=" + fullScans + ", filesort=" + filesort + ", suggestedIndex=" + suggestedIndex + "]";
+	}
+}
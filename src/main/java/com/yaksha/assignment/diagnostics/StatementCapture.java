@@ -0,0 +1,42 @@
+package com.yaksha.assignment.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Collects the statements the current thread runs between begin and end, i.e. during one sampled DAO call.
+// CapturingDataSource records into it; outside a capture recording is a no-op.
+public class StatementCapture {
+
+	// A bulk call can run thousands of statements; beyond this many the rest are not kept
+	private static final int MAX_STATEMENTS_PER_CALL = 256;
+
+	private final ThreadLocal<List<CapturedStatement>> current = new ThreadLocal<>();
+
+	// Start capturing on this thread; false if a capture is already running (a nested DAO call)
+	public boolean begin() {
+		if (current.get() != null) {
+			return false;
+		}
+		current.set(new ArrayList<>());
+		return true;
+	}
+
+	// Stop capturing and return what was run
+	public List<CapturedStatement> end() {
+		List<CapturedStatement> statements = current.get();
+		current.remove();
+		return statements == null ? Collections.<CapturedStatement>emptyList() : statements;
+	}
+
+	public boolean isActive() {
+		return current.get() != null;
+	}
+
+	void record(CapturedStatement statement) {
+		List<CapturedStatement> statements = current.get();
+		if (statements != null && statements.size() < MAX_STATEMENTS_PER_CALL) {
+			statements.add(statement);
+		}
+	}
+}
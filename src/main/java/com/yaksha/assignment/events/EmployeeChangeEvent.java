@@ -0,0 +1,52 @@
+package com.yaksha.assignment.events;
+
+import com.yaksha.assignment.models.Employee;
+
+// One committed change to the Employee table, as recorded in the EmployeeOutbox table
+public class EmployeeChangeEvent {
+
+	private final long id;
+	private final Integer employeeId;
+	private final EmployeeChangeType type;
+	private final String payload;
+	private final Employee employee;
+
+	public EmployeeChangeEvent(long id, Integer employeeId, EmployeeChangeType type, String payload,
+			Employee employee) {
+		this.id = id;
+		this.employeeId = employeeId;
+		this.type = type;
+		this.payload = payload;
+		this.employee = employee;
+	}
+
+	// Outbox sequence number; events are delivered in increasing id order
+	public long getId() {
+		return id;
+	}
+
+	// Null for set-based events
+	public Integer getEmployeeId() {
+		return employeeId;
+	}
+
+	public EmployeeChangeType getType() {
+		return type;
+	}
+
+	// Raw JSON payload
+	public String getPayload() {
+		return payload;
+	}
+
+	// The employee as written, for INSERTED and UPDATED events; null otherwise
+	public Employee getEmployee() {
+		return employee;
+	}
+
+	@Override
+	public String toString() {
+		return "EmployeeChangeEvent [id=" + id + ", employeeId=" + employeeId + ", type=" + type + ", payload="
+				+ payload + "]";
+	}
+}
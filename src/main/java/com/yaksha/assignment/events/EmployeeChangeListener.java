@@ -0,0 +1,8 @@
+package com.yaksha.assignment.events;
+
+// Receives committed Employee changes from the EmployeeOutboxRelay. Delivery is at-least-once and in outbox
+// order, so implementations must tolerate seeing an event again after a failure or restart.
+public interface EmployeeChangeListener {
+
+	void onEvent(EmployeeChangeEvent event);
+}
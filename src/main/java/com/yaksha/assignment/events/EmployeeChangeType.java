@@ -0,0 +1,10 @@
+package com.yaksha.assignment.events;
+
+public enum EmployeeChangeType {
+	// Single-row changes; the payload is the employee as written (none for DELETED)
+	INSERTED, UPDATED, DELETED,
+	// Set-based change; the payload describes the scope (department or id range) instead of rows
+	SALARIES_ADJUSTED,
+	// All rows of one table partition were removed; the payload names the partition
+	PARTITION_TRUNCATED
+}
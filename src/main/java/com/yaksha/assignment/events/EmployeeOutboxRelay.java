@@ -0,0 +1,371 @@
+package com.yaksha.assignment.events;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yaksha.assignment.dao.EmployeeChangeTracker;
+import com.yaksha.assignment.models.Employee;
+
+// Publishes committed EmployeeOutbox rows to in-process listeners. Every instance reads the outbox from its own
+// watermark, kept in the EmployeeOutboxOffset table under a per-instance consumer id, so each instance sees every
+// event whichever instance wrote it. Inserts can commit out of id order, so ids the watermark has passed without
+// seeing them are kept as gaps and looked up again until gapMillis have passed, the same way
+// DatabaseInvalidationBus does; a late event is therefore delivered after later ids (events of one employee
+// still arrive in order, as its row lock orders their inserts). A single thread delivers events, and the
+// watermark only moves past an event once every listener has accepted it, so a failing listener (or a crash in
+// between) means redelivery rather than loss; an event failing MAX_ATTEMPTS times, or whose payload cannot be
+// read, is dead-lettered (logged and counted) and skipped so it cannot hold up the events after it. Polling is
+// the fallback; committed writes wake the relay up immediately through the change tracker. Events are deleted
+// once older than the retention period and below the watermark of every live instance, which bounds how far
+// back readEvents can replay.
+public class EmployeeOutboxRelay {
+
+	// Events delivered per poll query
+	private static final int BATCH_SIZE = 500;
+
+	// Gap ids looked up per IN list
+	private static final int GAP_CHUNK_SIZE = 100;
+
+	// Widest run of missing ids still tracked as gaps; anything wider is an auto-increment jump
+	private static final int MAX_GAP_WIDTH = 10 * BATCH_SIZE;
+
+	// Deliveries of one event tried before it is dead-lettered
+	static final int MAX_ATTEMPTS = 10;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EmployeeChangeTracker changeTracker;
+	private final long pollMillis;
+	private final long retentionMillis;
+	// How long an id skipped over by the watermark is looked for before it is taken as never committed
+	private final long gapMillis;
+	// This instance's row in EmployeeOutboxOffset
+	private final String consumer = UUID.randomUUID().toString();
+	private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+	private final AtomicLong published = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong deadLetters = new AtomicLong();
+	private ScheduledExecutorService executor;
+
+	// Poller state, only touched by the polling thread (and by start before it runs): the watermark, ids below it
+	// not seen yet with the time they were first missed, and failed deliveries per event id
+	private long watermark;
+	private final TreeMap<Long, Long> gaps = new TreeMap<>();
+	private final Map<Long, Integer> attempts = new HashMap<>();
+	private long lastPurge = System.currentTimeMillis();
+	private long recordedOffset;
+	private long lastHeartbeat;
+
+	// An unreadable payload gives an event without its employee, which deliver dead-letters
+	private final RowMapper<EmployeeChangeEvent> eventRowMapper = new RowMapper<EmployeeChangeEvent>() {
+		@Override
+		public EmployeeChangeEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+			int employeeId = rs.getInt("employee_id");
+			Integer boxedEmployeeId = rs.wasNull() ? null : employeeId;
+			EmployeeChangeType type = typeOf(rs.getString("event_type"));
+			String payload = rs.getString("payload");
+			Employee employee = null;
+			if (payload != null && carriesEmployee(type)) {
+				try {
+					employee = objectMapper.readValue(payload, Employee.class);
+				} catch (IOException e) {
+					System.out.println("Unreadable outbox payload for event " + rs.getLong("id") + ": "
+							+ e.getMessage());
+				}
+			}
+			return new EmployeeChangeEvent(rs.getLong("id"), boxedEmployeeId, type, payload, employee);
+		}
+	};
+
+	public EmployeeOutboxRelay(JdbcTemplate jdbcTemplate, EmployeeChangeTracker changeTracker, long pollMillis,
+			long retentionMillis, long gapMillis) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.changeTracker = changeTracker;
+		this.pollMillis = pollMillis;
+		this.retentionMillis = retentionMillis;
+		this.gapMillis = gapMillis;
+	}
+
+	public void subscribe(EmployeeChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	public void unsubscribe(EmployeeChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		// Only changes made from now on matter: listeners load from the database after subscribing
+		watermark = getLatestEventId();
+		// Events still being committed may sit below the watermark: treat the holes among recent rows as gaps
+		List<Long> recent = jdbcTemplate.queryForList("SELECT id FROM EmployeeOutbox WHERE created_at >= ? ORDER BY id",
+				Long.class, new Timestamp(System.currentTimeMillis() - gapMillis));
+		long now = System.currentTimeMillis();
+		for (int i = 1; i < recent.size(); i++) {
+			if (recent.get(i) - recent.get(i - 1) - 1 > MAX_GAP_WIDTH) {
+				continue;
+			}
+			for (long id = recent.get(i - 1) + 1; id < recent.get(i); id++) {
+				gaps.put(id, now);
+			}
+		}
+		recordedOffset = lowestNeeded();
+		lastHeartbeat = System.currentTimeMillis();
+		jdbcTemplate.update("INSERT INTO EmployeeOutboxOffset (consumer, last_id) VALUES (?, ?)", consumer,
+				recordedOffset);
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "employee-outbox-relay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::pollQuietly, 0, pollMillis, TimeUnit.MILLISECONDS);
+		changeTracker.addCommitListener(this::wakeUp);
+		System.out.println("Outbox relay started as " + consumer + ", polling every " + pollMillis + " ms.");
+	}
+
+	public synchronized void stop() {
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+		// Gone for good: this instance's offset no longer holds back the purge
+		try {
+			jdbcTemplate.update("DELETE FROM EmployeeOutboxOffset WHERE consumer = ?", consumer);
+		} catch (RuntimeException e) {
+			System.out.println("Could not remove outbox offset " + consumer + ": " + e.getMessage());
+		}
+		System.out.println("Outbox relay stopped after publishing " + published.get() + " events.");
+	}
+
+	// Schedule an immediate poll; repeated calls before it runs collapse into one
+	public void wakeUp() {
+		ScheduledExecutorService current = executor;
+		if (current != null && wakeUpPending.compareAndSet(false, true)) {
+			try {
+				current.execute(this::pollQuietly);
+			} catch (RuntimeException e) {
+				// Shutting down; the pending flag no longer matters
+			}
+		}
+	}
+
+	// Deliver events committed since the last poll, whether above the watermark or in one of its gaps, returning
+	// how many were published. Stops at an event a listener rejects, which is retried on the next poll.
+	public int poll() {
+		wakeUpPending.set(false);
+		long now = System.currentTimeMillis();
+		int total = 0;
+
+		// Gaps filled by late commits since the last poll
+		List<Long> open = new ArrayList<>(gaps.keySet());
+		for (int from = 0; from < open.size(); from += GAP_CHUNK_SIZE) {
+			List<Long> chunk = open.subList(from, Math.min(from + GAP_CHUNK_SIZE, open.size()));
+			String sql = "SELECT * FROM EmployeeOutbox WHERE id IN ("
+					+ String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY id";
+			for (EmployeeChangeEvent event : jdbcTemplate.query(sql, eventRowMapper, chunk.toArray())) {
+				if (!deliver(event)) {
+					return finishPoll(total, now);
+				}
+				gaps.remove(event.getId());
+				total++;
+			}
+		}
+
+		// Events above the watermark; ids skipped on the way become gaps
+		String sql = "SELECT * FROM EmployeeOutbox WHERE id > ? ORDER BY id LIMIT ?";
+		while (true) {
+			List<EmployeeChangeEvent> events = jdbcTemplate.query(sql, eventRowMapper, watermark, BATCH_SIZE);
+			for (EmployeeChangeEvent event : events) {
+				if (!deliver(event)) {
+					return finishPoll(total, now);
+				}
+				if (event.getId() - watermark - 1 <= MAX_GAP_WIDTH) {
+					for (long id = watermark + 1; id < event.getId(); id++) {
+						gaps.put(id, now);
+					}
+				}
+				watermark = event.getId();
+				total++;
+			}
+			if (events.size() < BATCH_SIZE) {
+				return finishPoll(total, now);
+			}
+		}
+	}
+
+	// Read events after the given outbox id, for consumers catching up from a watermark of their own; check
+	// isReadable before applying one
+	public List<EmployeeChangeEvent> readEvents(long afterId, int limit) {
+		String sql = "SELECT * FROM EmployeeOutbox WHERE id > ? ORDER BY id LIMIT ?";
+		return jdbcTemplate.query(sql, eventRowMapper, afterId, limit);
+	}
+
+	// Lowest outbox id still kept, or Long.MAX_VALUE for an empty outbox (everything may have been purged)
+	public long getOldestEventId() {
+		Long oldest = jdbcTemplate.queryForObject("SELECT MIN(id) FROM EmployeeOutbox", Long.class);
+		return oldest == null ? Long.MAX_VALUE : oldest;
+	}
+
+	// Highest outbox id so far, or 0 for an empty outbox
+	public long getLatestEventId() {
+		Long latest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM EmployeeOutbox", Long.class);
+		return latest == null ? 0 : latest;
+	}
+
+	public long getPublishedCount() {
+		return published.get();
+	}
+
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	// Events skipped after MAX_ATTEMPTS failed deliveries or because they could not be read
+	public long getDeadLetterCount() {
+		return deadLetters.get();
+	}
+
+	// Number of ids below the watermark still being looked for
+	public int getGapCount() {
+		return gaps.size();
+	}
+
+	// Hand the event to every listener. False means it is to be retried; on the last attempt, or for an event
+	// that cannot be read, failures are dead-lettered instead and the relay moves on.
+	private boolean deliver(EmployeeChangeEvent event) {
+		if (!isReadable(event)) {
+			deadLetter(event, "unreadable event");
+			return true;
+		}
+		int attempt = attempts.getOrDefault(event.getId(), 0) + 1;
+		for (EmployeeChangeListener listener : listeners) {
+			try {
+				listener.onEvent(event);
+			} catch (RuntimeException e) {
+				failures.incrementAndGet();
+				if (attempt < MAX_ATTEMPTS) {
+					attempts.put(event.getId(), attempt);
+					System.out.println("Outbox listener failed on " + event + " (attempt " + attempt
+							+ "), will retry: " + e.getMessage());
+					return false;
+				}
+				deadLetter(event, e.getMessage());
+			}
+		}
+		attempts.remove(event.getId());
+		return true;
+	}
+
+	private void deadLetter(EmployeeChangeEvent event, String reason) {
+		deadLetters.incrementAndGet();
+		System.out.println("Dead-lettered outbox event " + event.getId() + " (" + event.getPayload() + "): "
+				+ reason);
+	}
+
+	// Expire old gaps, record how far this instance has got and purge what every instance is done with
+	private int finishPoll(int delivered, long now) {
+		published.addAndGet(delivered);
+		// Ids missing for longer than any insert takes to commit were rolled back (or never used)
+		for (Iterator<Map.Entry<Long, Long>> it = gaps.entrySet().iterator(); it.hasNext();) {
+			if (now - it.next().getValue() > gapMillis) {
+				it.remove();
+			}
+		}
+		long lowest = lowestNeeded();
+		if (lowest != recordedOffset || now - lastHeartbeat >= retentionMillis / 10) {
+			int updated = jdbcTemplate.update(
+					"UPDATE EmployeeOutboxOffset SET last_id = ?, updated_at = CURRENT_TIMESTAMP WHERE consumer = ?",
+					lowest, consumer);
+			if (updated == 0) {
+				// Purged as stale while this instance was stalled
+				jdbcTemplate.update("INSERT INTO EmployeeOutboxOffset (consumer, last_id) VALUES (?, ?)", consumer,
+						lowest);
+			}
+			recordedOffset = lowest;
+			lastHeartbeat = now;
+		}
+		purgeExpired(now);
+		return delivered;
+	}
+
+	// Every id up to this one has been delivered (or given up on) by this instance
+	private long lowestNeeded() {
+		return gaps.isEmpty() ? watermark : Math.min(watermark, gaps.firstKey() - 1);
+	}
+
+	// Delete events past the retention period that every live instance has passed, checking a few times per
+	// period. Offsets not refreshed within the retention period belong to instances that are gone.
+	private void purgeExpired(long now) {
+		if (now - lastPurge < retentionMillis / 10) {
+			return;
+		}
+		lastPurge = now;
+		Timestamp cutoff = new Timestamp(now - retentionMillis);
+		jdbcTemplate.update("DELETE FROM EmployeeOutboxOffset WHERE updated_at < ?", cutoff);
+		Long lowest = jdbcTemplate.queryForObject("SELECT MIN(last_id) FROM EmployeeOutboxOffset", Long.class);
+		int purged = jdbcTemplate.update("DELETE FROM EmployeeOutbox WHERE id <= ? AND created_at < ?",
+				lowest == null ? lowestNeeded() : Math.min(lowest, lowestNeeded()), cutoff);
+		if (purged > 0) {
+			System.out.println("Purged " + purged + " outbox events.");
+		}
+	}
+
+	// False for an event of a type this version does not know, or whose employee payload could not be read
+	public static boolean isReadable(EmployeeChangeEvent event) {
+		return event.getType() != null && (!carriesEmployee(event.getType()) || event.getEmployee() != null);
+	}
+
+	// Null for an event type this version does not know
+	private static EmployeeChangeType typeOf(String name) {
+		try {
+			return EmployeeChangeType.valueOf(name);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			return null;
+		}
+	}
+
+	private static boolean carriesEmployee(EmployeeChangeType type) {
+		return type == EmployeeChangeType.INSERTED || type == EmployeeChangeType.UPDATED;
+	}
+
+	private void pollQuietly() {
+		try {
+			poll();
+		} catch (RuntimeException e) {
+			// Keep the scheduled task alive; the next poll retries
+			System.out.println("Outbox relay poll failed: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package com.yaksha.assignment.invalidation;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+// Invalidation bus for a cluster sharing one database: published batches are inserted into the
+// EmployeeInvalidation table, and every instance polls that table from its own watermark, skipping the rows
+// it wrote itself. Rows are a few bytes each and are purged once older than the retention period, which has
+// to outlast both the polling interval of the slowest instance and the gap timeout.
+public class DatabaseInvalidationBus implements InvalidationBus {
+
+	// Rows read per poll query
+	private static final int BATCH_SIZE = 1000;
+
+	// Gap ids looked up per IN list
+	private static final int GAP_CHUNK_SIZE = 100;
+
+	// Widest run of missing ids still tracked as gaps. Concurrent publishers only hold a few batches of ids at a
+	// time; a wider hole is an auto-increment jump (e.g. after a server restart) with nothing to wait for.
+	private static final int MAX_GAP_WIDTH = 10 * BATCH_SIZE;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final long pollMillis;
+	private final long retentionMillis;
+	// How long an id skipped over by the watermark is looked for before it is taken as never committed
+	private final long gapMillis;
+	// Identifies this instance's rows
+	private final String origin = UUID.randomUUID().toString();
+	private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+	// Poller state, only touched by the polling thread (and by start before it runs). Inserts from different
+	// instances can commit out of id order, so ids below the watermark that have not been seen yet are kept as
+	// gaps, with the time they were first missed, and looked up again on every poll until gapMillis have passed.
+	private long watermark;
+	private final TreeMap<Long, Long> gaps = new TreeMap<>();
+	private long lastPurge = System.currentTimeMillis();
+	private ScheduledExecutorService executor;
+
+	private static final RowMapper<Row> ROW_MAPPER = new RowMapper<Row>() {
+		@Override
+		public Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+			int employeeId = rs.getInt("employee_id");
+			Integer boxedEmployeeId = rs.wasNull() ? null : employeeId;
+			return new Row(rs.getLong("id"), rs.getString("origin"),
+					new Invalidation(boxedEmployeeId, rs.getInt("version"), rs.getString("scope")));
+		}
+	};
+
+	public DatabaseInvalidationBus(JdbcTemplate jdbcTemplate, long pollMillis, long retentionMillis,
+			long gapMillis) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.pollMillis = pollMillis;
+		this.retentionMillis = retentionMillis;
+		this.gapMillis = gapMillis;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		// Only changes made from now on matter: caches are loaded from the database after this point
+		Long latest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM EmployeeInvalidation", Long.class);
+		watermark = latest == null ? 0 : latest;
+		// Rows still being committed elsewhere may sit below the watermark: treat the holes among recent rows as gaps
+		List<Long> recent = jdbcTemplate.queryForList(
+				"SELECT id FROM EmployeeInvalidation WHERE created_at >= ? ORDER BY id", Long.class,
+				new Timestamp(System.currentTimeMillis() - gapMillis));
+		long now = System.currentTimeMillis();
+		for (int i = 1; i < recent.size(); i++) {
+			if (recent.get(i) - recent.get(i - 1) - 1 > MAX_GAP_WIDTH) {
+				continue;
+			}
+			for (long id = recent.get(i - 1) + 1; id < recent.get(i); id++) {
+				gaps.put(id, now);
+			}
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "employee-invalidation-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::pollQuietly, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+		System.out.println("Database invalidation bus started as " + origin + ", polling every " + pollMillis
+				+ " ms.");
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor = null;
+	}
+
+	@Override
+	public void publish(List<Invalidation> invalidations) {
+		String sql = "INSERT INTO EmployeeInvalidation (origin, employee_id, version, scope) VALUES (?, ?, ?, ?)";
+		List<Object[]> rows = new ArrayList<>(invalidations.size());
+		for (Invalidation invalidation : invalidations) {
+			rows.add(new Object[] { origin, invalidation.getEmployeeId(), invalidation.getVersion(),
+					invalidation.getScope() });
+		}
+		jdbcTemplate.batchUpdate(sql, rows);
+	}
+
+	@Override
+	public void subscribe(InvalidationListener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(InvalidationListener listener) {
+		listeners.remove(listener);
+	}
+
+	// Deliver other instances' invalidations committed since the last poll, whether above the watermark or in one
+	// of its gaps, returning how many rows were read
+	public int poll() {
+		long now = System.currentTimeMillis();
+		List<Invalidation> received = new ArrayList<>();
+
+		// Gaps that have been filled by late commits since the last poll
+		List<Long> filled = new ArrayList<>();
+		List<Long> open = new ArrayList<>(gaps.keySet());
+		for (int from = 0; from < open.size(); from += GAP_CHUNK_SIZE) {
+			List<Long> chunk = open.subList(from, Math.min(from + GAP_CHUNK_SIZE, open.size()));
+			String sql = "SELECT id, origin, employee_id, version, scope FROM EmployeeInvalidation WHERE id IN ("
+					+ String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+			for (Row row : jdbcTemplate.query(sql, ROW_MAPPER, chunk.toArray())) {
+				filled.add(row.id);
+				receive(row, received);
+			}
+		}
+
+		// Rows above the watermark; any ids skipped on the way become new gaps
+		String sql = "SELECT id, origin, employee_id, version, scope FROM EmployeeInvalidation WHERE id > ? "
+				+ "ORDER BY id LIMIT ?";
+		List<Long> skipped = new ArrayList<>();
+		long position = watermark;
+		int read = filled.size();
+		while (true) {
+			List<Row> rows = jdbcTemplate.query(sql, ROW_MAPPER, position, BATCH_SIZE);
+			for (Row row : rows) {
+				if (row.id - position - 1 <= MAX_GAP_WIDTH) {
+					for (long id = position + 1; id < row.id; id++) {
+						skipped.add(id);
+					}
+				}
+				receive(row, received);
+				position = row.id;
+			}
+			read += rows.size();
+			if (rows.size() < BATCH_SIZE) {
+				break;
+			}
+		}
+
+		if (!received.isEmpty()) {
+			List<Invalidation> coalesced = InvalidationPublisher.coalesce(received);
+			for (InvalidationListener listener : listeners) {
+				// A failure leaves the watermark and gaps as they were, so the batch is delivered again next poll
+				listener.onInvalidations(coalesced);
+			}
+		}
+		watermark = position;
+		for (Long id : filled) {
+			gaps.remove(id);
+		}
+		for (Long id : skipped) {
+			gaps.put(id, now);
+		}
+		// Ids missing for longer than any insert takes to commit were rolled back (or never used)
+		for (Iterator<Map.Entry<Long, Long>> it = gaps.entrySet().iterator(); it.hasNext();) {
+			if (now - it.next().getValue() > gapMillis) {
+				it.remove();
+			}
+		}
+		purgeExpired();
+		return read;
+	}
+
+	// Number of ids below the watermark still being looked for
+	public int getGapCount() {
+		return gaps.size();
+	}
+
+	private void receive(Row row, List<Invalidation> received) {
+		if (!origin.equals(row.origin)) {
+			received.add(row.invalidation);
+		}
+	}
+
+	private void purgeExpired() {
+		long now = System.currentTimeMillis();
+		if (now - lastPurge < retentionMillis / 10) {
+			return;
+		}
+		lastPurge = now;
+		int purged = jdbcTemplate.update("DELETE FROM EmployeeInvalidation WHERE created_at < ?",
+				new Timestamp(now - retentionMillis));
+		if (purged > 0) {
+			System.out.println("Purged " + purged + " expired invalidations.");
+		}
+	}
+
+	private void pollQuietly() {
+		try {
+			poll();
+		} catch (RuntimeException e) {
+			// Keep the scheduled task alive; the next poll retries
+			System.out.println("Invalidation poll failed: " + e.getMessage());
+		}
+	}
+
+	private static class Row {
+		private final long id;
+		private final String origin;
+		private final Invalidation invalidation;
+
+		Row(long id, String origin, Invalidation invalidation) {
+			this.id = id;
+			this.origin = origin;
+			this.invalidation = invalidation;
+		}
+	}
+}
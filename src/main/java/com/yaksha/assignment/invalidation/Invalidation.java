@@ -0,0 +1,74 @@
+package com.yaksha.assignment.invalidation;
+
+// Compact notice that an Employee row changed: its id and the version it changed to. A cached copy older than
+// that version is stale. Deletes carry DELETED_VERSION, which supersedes every real version. Salary
+// adjustments carry their scope (the outbox payload naming a department or an id range) instead of a row, and
+// partition truncation invalidates all rows at once.
+public class Invalidation {
+
+	public static final int DELETED_VERSION = Integer.MAX_VALUE;
+
+	private static final Invalidation ALL_ROWS = new Invalidation(null, DELETED_VERSION);
+
+	// Null for scoped and all-rows invalidations
+	private final Integer employeeId;
+	private final int version;
+	// JSON scope of a set-based change, null otherwise
+	private final String scope;
+
+	public Invalidation(Integer employeeId, int version) {
+		this(employeeId, version, null);
+	}
+
+	public Invalidation(Integer employeeId, int version, String scope) {
+		this.employeeId = employeeId;
+		this.version = version;
+		this.scope = scope;
+	}
+
+	public static Invalidation allRows() {
+		return ALL_ROWS;
+	}
+
+	// The rows in a set-based change's scope, e.g. {"department":"IT",...} or {"fromId":1,"toId":100,...}
+	public static Invalidation scoped(String scope) {
+		return new Invalidation(null, DELETED_VERSION, scope);
+	}
+
+	public static Invalidation deleted(int employeeId) {
+		return new Invalidation(employeeId, DELETED_VERSION);
+	}
+
+	public Integer getEmployeeId() {
+		return employeeId;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public String getScope() {
+		return scope;
+	}
+
+	public boolean isAllRows() {
+		return employeeId == null && scope == null;
+	}
+
+	public boolean isScoped() {
+		return scope != null;
+	}
+
+	public boolean isDeleted() {
+		return version == DELETED_VERSION;
+	}
+
+	@Override
+	public String toString() {
+		if (isAllRows()) {
+			return "Invalidation [all rows]";
+		}
+		return isScoped() ? "Invalidation [scope=" + scope + "]"
+				: "Invalidation [employeeId=" + employeeId + ", version=" + (isDeleted() ? "deleted" : version) + "]";
+	}
+}
@@ -0,0 +1,19 @@
+package com.yaksha.assignment.invalidation;
+
+import java.util.List;
+
+// Carries invalidations for committed Employee writes between application instances. InvalidationPublisher
+// feeds it after commit; subscribers receive the batches published by other instances (the loopback bus,
+// having no other instances, hands back this instance's own).
+public interface InvalidationBus {
+
+	void start();
+
+	void stop();
+
+	void publish(List<Invalidation> invalidations);
+
+	void subscribe(InvalidationListener listener);
+
+	void unsubscribe(InvalidationListener listener);
+}
@@ -0,0 +1,11 @@
+package com.yaksha.assignment.invalidation;
+
+import java.util.List;
+
+// Cache that drops or refreshes entries when other instances change Employee rows
+public interface InvalidationListener {
+
+	// Called with a coalesced batch (at most one invalidation per row); must be idempotent, as a batch can be
+	// delivered more than once
+	void onInvalidations(List<Invalidation> invalidations);
+}
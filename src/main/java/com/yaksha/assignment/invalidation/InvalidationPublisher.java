@@ -0,0 +1,159 @@
+package com.yaksha.assignment.invalidation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Collects invalidations for Employee writes and hands them to the bus once they have committed. Inside a
+// transaction they are held until commit (and dropped on rollback); a background thread then gathers what
+// commits within batchMillis of each other, coalesces it to one invalidation per row and publishes it as one
+// batch, so a burst of writes costs the bus a few messages rather than one per row.
+public class InvalidationPublisher {
+
+	private final InvalidationBus bus;
+	private final long batchMillis;
+	private final int maxBatchSize;
+	private final BlockingQueue<Invalidation> queue = new LinkedBlockingQueue<>();
+	private final AtomicLong publishedBatches = new AtomicLong();
+	private final AtomicLong publishedInvalidations = new AtomicLong();
+	private volatile boolean running;
+	private Thread flusher;
+
+	public InvalidationPublisher(InvalidationBus bus, long batchMillis, int maxBatchSize) {
+		this.bus = bus;
+		this.batchMillis = batchMillis;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public synchronized void start() {
+		if (flusher != null) {
+			return;
+		}
+		running = true;
+		flusher = new Thread(this::run, "employee-invalidation-publisher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	// Publish whatever is still queued, then stop
+	public synchronized void stop() {
+		if (flusher == null) {
+			return;
+		}
+		running = false;
+		try {
+			flusher.join(5000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flusher = null;
+		System.out.println("Invalidation publisher stopped after " + publishedInvalidations.get()
+				+ " invalidations in " + publishedBatches.get() + " batches.");
+	}
+
+	// Queue an invalidation, after commit when called inside a transaction
+	@SuppressWarnings("unchecked")
+	public void record(Invalidation invalidation) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			queue.add(invalidation);
+			return;
+		}
+		List<Invalidation> pending = (List<Invalidation>) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			List<Invalidation> transactionPending = new ArrayList<>();
+			TransactionSynchronizationManager.bindResource(this, transactionPending);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationPublisher.this);
+					if (status == STATUS_COMMITTED) {
+						queue.addAll(transactionPending);
+					}
+				}
+			});
+			pending = transactionPending;
+		}
+		pending.add(invalidation);
+	}
+
+	public long getPublishedBatchCount() {
+		return publishedBatches.get();
+	}
+
+	public long getPublishedInvalidationCount() {
+		return publishedInvalidations.get();
+	}
+
+	// One invalidation per row, keeping the highest version, and one per distinct scope; an all-rows
+	// invalidation replaces everything
+	static List<Invalidation> coalesce(Collection<Invalidation> invalidations) {
+		Map<Integer, Invalidation> latest = new LinkedHashMap<>();
+		Map<String, Invalidation> scoped = new LinkedHashMap<>();
+		for (Invalidation invalidation : invalidations) {
+			if (invalidation.isAllRows()) {
+				List<Invalidation> all = new ArrayList<>(1);
+				all.add(invalidation);
+				return all;
+			}
+			if (invalidation.isScoped()) {
+				scoped.putIfAbsent(invalidation.getScope(), invalidation);
+				continue;
+			}
+			latest.merge(invalidation.getEmployeeId(), invalidation,
+					(current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate : current);
+		}
+		List<Invalidation> coalesced = new ArrayList<>(latest.values());
+		coalesced.addAll(scoped.values());
+		return coalesced;
+	}
+
+	private void run() {
+		List<Invalidation> batch = new ArrayList<>();
+		while (running || !queue.isEmpty()) {
+			try {
+				Invalidation first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// Give writes committing right behind this one a moment to join the batch
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchMillis);
+				while (batch.size() < maxBatchSize) {
+					Invalidation next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				running = false;
+				queue.drainTo(batch);
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<Invalidation> batch) {
+		List<Invalidation> coalesced = coalesce(batch);
+		try {
+			bus.publish(coalesced);
+			publishedBatches.incrementAndGet();
+			publishedInvalidations.addAndGet(coalesced.size());
+		} catch (RuntimeException e) {
+			// The writes are committed either way; other instances keep stale copies until the rows change again
+			System.out.println("Could not publish " + coalesced.size() + " invalidations: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.yaksha.assignment.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-process bus for tests and single-instance runs: every published batch is delivered straight back to the
+// local subscribers, on the publishing thread
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+	private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+	// Nothing to connect to
+	@Override
+	public void start() {
+	}
+
+	@Override
+	public void stop() {
+	}
+
+	@Override
+	public void publish(List<Invalidation> invalidations) {
+		for (InvalidationListener listener : listeners) {
+			try {
+				listener.onInvalidations(invalidations);
+			} catch (RuntimeException e) {
+				System.out.println("Invalidation listener failed on " + invalidations.size() + " invalidations: "
+						+ e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(InvalidationListener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(InvalidationListener listener) {
+		listeners.remove(listener);
+	}
+}
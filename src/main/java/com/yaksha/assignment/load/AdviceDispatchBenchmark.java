@@ -0,0 +1,89 @@
+package com.yaksha.assignment.load;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.yaksha.assignment.aspects.WovenTransactionAspect;
+import com.yaksha.assignment.config.AppConfig;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.startup.AppContexts;
+
+// Measures what the transaction advice adds to a DAO call, in time and heap allocation, by comparing the
+// cheapest DAO read (an empty keyset page) with the same query run on JdbcTemplate directly. Run it once per
+// dispatch mode and compare the overhead lines:
+//   proxy: java -Dspring.profiles.active=embedded -cp ... com.yaksha.assignment.load.AdviceDispatchBenchmark
+//   woven: java -javaagent:target/dependency/aspectjweaver-<version>.jar -Dspring.profiles.active=embedded,aspectj
+//          -cp ... com.yaksha.assignment.load.AdviceDispatchBenchmark
+// The advice's console logging is muted while measuring, so the numbers show dispatch rather than I/O.
+public class AdviceDispatchBenchmark {
+
+	private static final String SQL = "SELECT * FROM Employee WHERE id > ? ORDER BY id LIMIT ?";
+
+	public static void main(String[] args) {
+		int warmup = Integer.getInteger("bench.warmup", 50000);
+		int iterations = Integer.getInteger("bench.iterations", 200000);
+		AnnotationConfigApplicationContext context = AppContexts.create(AppConfig.class);
+		try {
+			EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+			String mode = AopUtils.isAopProxy(employeeDAO) ? "proxy"
+					: context.getEnvironment().acceptsProfiles(Profiles.of(WovenTransactionAspect.PROFILE)) ? "woven"
+							: "unadvised";
+			RowMapper<Object> ignoreRows = (rs, rowNum) -> null;
+
+			Runnable direct = () -> jdbcTemplate.query(SQL, ignoreRows, Integer.MAX_VALUE, 1);
+			Runnable advised = () -> employeeDAO.getEmployeesAfterId(Integer.MAX_VALUE, 1);
+
+			PrintStream console = System.out;
+			double[] directResult;
+			double[] advisedResult;
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override
+				public void write(int b) {
+				}
+			}));
+			try {
+				measure(direct, warmup);
+				measure(advised, warmup);
+				directResult = measure(direct, iterations);
+				advisedResult = measure(advised, iterations);
+			} finally {
+				System.setOut(console);
+			}
+
+			System.out.println("Dispatch mode: " + mode + ", " + iterations + " calls each");
+			report("direct JDBC", directResult);
+			report("EmployeeDAO", advisedResult);
+			report("advice overhead", new double[] { advisedResult[0] - directResult[0],
+					advisedResult[1] - directResult[1] });
+		} finally {
+			context.close();
+		}
+	}
+
+	// Returns { ns per call, bytes allocated per call } for the calling thread
+	private static double[] measure(Runnable call, int iterations) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			call.run();
+		}
+		long elapsed = System.nanoTime() - start;
+		long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+		return new double[] { (double) elapsed / iterations, (double) bytes / iterations };
+	}
+
+	private static void report(String label, double[] result) {
+		System.out.println(String.format("  %-16s %10.0f ns/call %10.0f bytes/call", label, result[0], result[1]));
+	}
+}
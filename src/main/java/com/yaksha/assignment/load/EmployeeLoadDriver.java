@@ -0,0 +1,243 @@
+package com.yaksha.assignment.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.yaksha.assignment.aspects.TransactionAdvice;
+import com.yaksha.assignment.config.AppConfig;
+import com.yaksha.assignment.dao.EmployeeBatchLoader;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.models.Employee;
+import com.yaksha.assignment.startup.AppContexts;
+
+// Replays a weighted mix of DAO calls at a target rate and reports throughput, latency percentiles,
+// error rates and rollbacks. Configured through system properties, for example:
+//   java -Dspring.profiles.active=embedded -Dload.threads=16 -Dload.rate=2000 -Dload.durationSeconds=60
+//        -Dload.mix=insert=20,byId=70,all=10 -cp ... com.yaksha.assignment.load.EmployeeLoadDriver
+// (byIdCoalesced is the same lookup as byId, sent through EmployeeBatchLoader.)
+// Latency is measured from each call's scheduled start, so a stalled database shows up in the
+// percentiles instead of silently lowering the offered rate.
+public class EmployeeLoadDriver {
+
+	enum Operation {
+		INSERT("insert"), GET_BY_ID("byId"), GET_BY_ID_COALESCED("byIdCoalesced"), GET_ALL("all");
+
+		private final String key;
+
+		Operation(String key) {
+			this.key = key;
+		}
+	}
+
+	private static final String[] DEPARTMENTS = { "IT", "HR", "Finance", "Sales", "Operations" };
+	private static final int REPORT_INTERVAL_SECONDS = 5;
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeBatchLoader employeeBatchLoader;
+	private final TransactionAdvice transactionAdvice;
+	private final int threads;
+	private final int durationSeconds;
+	private final int rate;
+	private final Operation[] weightedOperations;
+	private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+	private final AtomicInteger maxKnownId;
+
+	public EmployeeLoadDriver(AnnotationConfigApplicationContext context, int threads, int durationSeconds, int rate,
+			String mix) {
+		this.employeeDAO = context.getBean(EmployeeDAO.class);
+		this.employeeBatchLoader = context.getBean(EmployeeBatchLoader.class);
+		this.transactionAdvice = context.getBean(TransactionAdvice.class);
+		this.threads = threads;
+		this.durationSeconds = durationSeconds;
+		this.rate = rate;
+		this.weightedOperations = parseMix(mix);
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new OperationStats());
+		}
+		Integer maxId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MAX(id) FROM Employee",
+				Integer.class);
+		this.maxKnownId = new AtomicInteger(maxId == null ? 0 : maxId);
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		AnnotationConfigApplicationContext context = AppContexts.create(AppConfig.class);
+		try {
+			new EmployeeLoadDriver(context, Integer.getInteger("load.threads", 8),
+					Integer.getInteger("load.durationSeconds", 30), Integer.getInteger("load.rate", 500),
+					System.getProperty("load.mix", "insert=20,byId=70,all=10")).run();
+		} finally {
+			context.close();
+		}
+	}
+
+	public void run() throws InterruptedException {
+		long commitsBefore = transactionAdvice.getCommitCount();
+		long rollbacksBefore = transactionAdvice.getRollbackCount();
+		System.out.println("Load: " + threads + " threads, " + (rate > 0 ? rate + " ops/s" : "unthrottled") + ", "
+				+ durationSeconds + " s");
+
+		long startNanos = System.nanoTime();
+		long deadline = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Thread worker = new Thread(() -> work(deadline), "load-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+
+		// Periodic interval report while the workers run
+		Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			totals.put(operation, new Histogram(3));
+		}
+		long lastReport = startNanos;
+		while (System.nanoTime() < deadline) {
+			Thread.sleep(Math.min(TimeUnit.SECONDS.toMillis(REPORT_INTERVAL_SECONDS),
+					Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))));
+			long now = System.nanoTime();
+			collectInterval(totals, (now - lastReport) / 1e9, true);
+			lastReport = now;
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		collectInterval(totals, (System.nanoTime() - lastReport) / 1e9, false);
+
+		double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+		System.out.println("Load summary over " + String.format("%.1f", elapsedSeconds) + " s:");
+		for (Operation operation : Operation.values()) {
+			OperationStats operationStats = stats.get(operation);
+			Histogram histogram = totals.get(operation);
+			long calls = histogram.getTotalCount();
+			if (calls == 0) {
+				continue;
+			}
+			System.out.println(String.format("  %-13s %8.1f ops/s  p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f ms"
+					+ "  errors=%d (%.2f%%)  not-found=%d", operation.key, calls / elapsedSeconds,
+					millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+					millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+					millis(histogram.getMaxValue()),
+					operationStats.errors.sum(), 100.0 * operationStats.errors.sum() / calls,
+					operationStats.notFound.sum()));
+		}
+		System.out.println("  transactions: " + (transactionAdvice.getCommitCount() - commitsBefore) + " committed, "
+				+ (transactionAdvice.getRollbackCount() - rollbacksBefore) + " rolled back");
+	}
+
+	private void work(long deadline) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		// Each thread gets an equal share of the target rate
+		long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(threads) / rate : 0;
+		long scheduled = System.nanoTime();
+		while (scheduled < deadline) {
+			if (intervalNanos > 0) {
+				long wait;
+				while ((wait = scheduled - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(wait);
+				}
+			} else {
+				scheduled = System.nanoTime();
+			}
+			Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+			OperationStats operationStats = stats.get(operation);
+			try {
+				execute(operation, random);
+			} catch (RuntimeException e) {
+				if (e instanceof EmptyResultDataAccessException) {
+					operationStats.notFound.increment();
+				} else {
+					operationStats.errors.increment();
+				}
+			}
+			operationStats.latency.recordValue(System.nanoTime() - scheduled);
+			scheduled += intervalNanos;
+		}
+	}
+
+	private void execute(Operation operation, ThreadLocalRandom random) {
+		switch (operation) {
+		case INSERT:
+			Employee employee = new Employee("Load " + Thread.currentThread().getName() + "-"
+					+ random.nextInt(1_000_000), DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+					30000 + random.nextInt(70000));
+			employeeDAO.insertEmployee(employee);
+			maxKnownId.incrementAndGet();
+			break;
+		case GET_BY_ID:
+			employeeDAO.getEmployeeById(1 + random.nextInt(Math.max(1, maxKnownId.get())));
+			break;
+		case GET_BY_ID_COALESCED:
+			if (employeeBatchLoader.getEmployeeById(1 + random.nextInt(Math.max(1, maxKnownId.get()))) == null) {
+				stats.get(operation).notFound.increment();
+			}
+			break;
+		case GET_ALL:
+			employeeDAO.getAllEmployees();
+			break;
+		}
+	}
+
+	// Move the latencies recorded since the last call into the totals, optionally printing them
+	private void collectInterval(Map<Operation, Histogram> totals, double seconds, boolean print) {
+		StringBuilder sb = new StringBuilder("Load interval:");
+		for (Operation operation : Operation.values()) {
+			Histogram interval = stats.get(operation).latency.getIntervalHistogram();
+			totals.get(operation).add(interval);
+			if (interval.getTotalCount() > 0) {
+				sb.append(String.format("  %s %.1f ops/s p99=%.2f ms", operation.key,
+						interval.getTotalCount() / seconds, millis(interval.getValueAtPercentile(99))));
+			}
+		}
+		if (print) {
+			System.out.println(sb);
+		}
+	}
+
+	// "insert=20,byId=70,all=10" -> one slot per unit of weight, sampled uniformly by the workers
+	private static Operation[] parseMix(String mix) {
+		List<Operation> weighted = new ArrayList<>();
+		for (String part : mix.split(",")) {
+			String[] keyAndWeight = part.trim().split("=");
+			Operation operation = null;
+			for (Operation candidate : Operation.values()) {
+				if (candidate.key.equals(keyAndWeight[0].trim())) {
+					operation = candidate;
+				}
+			}
+			if (operation == null || keyAndWeight.length != 2) {
+				throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+			}
+			for (int i = Integer.parseInt(keyAndWeight[1].trim()); i > 0; i--) {
+				weighted.add(operation);
+			}
+		}
+		if (weighted.isEmpty()) {
+			throw new IllegalArgumentException("load.mix has no positive weights: " + mix);
+		}
+		return weighted.toArray(new Operation[0]);
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static class OperationStats {
+		private final Recorder latency = new Recorder(3);
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder notFound = new LongAdder();
+	}
+}
@@ -0,0 +1,71 @@
+package com.yaksha.assignment.models;
+
+public class DepartmentSummary {
+
+	private String department;
+	private long headcount;
+	private double totalSalary;
+	private double minSalary;
+	private double maxSalary;
+
+	// Constructor
+	public DepartmentSummary() {
+	}
+
+	// Constructor
+	public DepartmentSummary(String department, long headcount, double totalSalary, double minSalary,
+			double maxSalary) {
+		this.department = department;
+		this.headcount = headcount;
+		this.totalSalary = totalSalary;
+		this.minSalary = minSalary;
+		this.maxSalary = maxSalary;
+	}
+
+	// Getters and Setters
+	public String getDepartment() {
+		return department;
+	}
+
+	public void setDepartment(String department) {
+		this.department = department;
+	}
+
+	public long getHeadcount() {
+		return headcount;
+	}
+
+	public void setHeadcount(long headcount) {
+		this.headcount = headcount;
+	}
+
+	public double getTotalSalary() {
+		return totalSalary;
+	}
+
+	public void setTotalSalary(double totalSalary) {
+		this.totalSalary = totalSalary;
+	}
+
+	public double getMinSalary() {
+		return minSalary;
+	}
+
+	public void setMinSalary(double minSalary) {
+		this.minSalary = minSalary;
+	}
+
+	public double getMaxSalary() {
+		return maxSalary;
+	}
+
+	public void setMaxSalary(double maxSalary) {
+		this.maxSalary = maxSalary;
+	}
+
+	@Override
+	public String toString() {
+		return "DepartmentSummary [department=" + department + ", headcount=" + headcount + ", totalSalary="
+				+ totalSalary + ", minSalary=" + minSalary + ", maxSalary=" + maxSalary + "]";
+	}
+}
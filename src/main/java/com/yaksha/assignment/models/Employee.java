@@ -6,6 +6,8 @@ public class Employee {
 	private String name;
 	private String department;
 	private double salary;
+	private int version;
+	private String employeeCode;
 
 	// Constructor
 	public Employee() {
@@ -18,6 +20,16 @@ public class Employee {
 		this.salary = salary;
 	}
 
+	// Copy constructor, for handing out cached employees that callers are free to modify
+	public Employee(Employee other) {
+		this.id = other.id;
+		this.name = other.name;
+		this.department = other.department;
+		this.salary = other.salary;
+		this.version = other.version;
+		this.employeeCode = other.employeeCode;
+	}
+
 	// Getters and Setters
 	public int getId() {
 		return id;
@@ -51,8 +63,27 @@ public class Employee {
 		this.salary = salary;
 	}
 
+	// Optimistic concurrency version, incremented on every successful update
+	public int getVersion() {
+		return version;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
+	// Natural key assigned by the HR master system, used to synchronise employees
+	public String getEmployeeCode() {
+		return employeeCode;
+	}
+
+	public void setEmployeeCode(String employeeCode) {
+		this.employeeCode = employeeCode;
+	}
+
 	@Override
 	public String toString() {
-		return "Employee [id=" + id + ", name=" + name + ", department=" + department + ", salary=" + salary + "]";
+		return "Employee [id=" + id + ", employeeCode=" + employeeCode + ", name=" + name + ", department="
+				+ department + ", salary=" + salary + ", version=" + version + "]";
 	}
-}
\ No newline at end of file
+}
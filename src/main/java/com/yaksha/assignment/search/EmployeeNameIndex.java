@@ -0,0 +1,199 @@
+package com.yaksha.assignment.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.events.EmployeeChangeEvent;
+import com.yaksha.assignment.events.EmployeeChangeListener;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+
+// In-memory trigram index over employee names for typo-tolerant, word-order-independent search. It is loaded
+// once with a streaming scan and then kept current by outbox events, so a search never touches the database.
+// Words are padded with two leading blanks, so a query of one or two letters still matches word starts.
+public class EmployeeNameIndex implements EmployeeChangeListener {
+
+	// Results need at least this share of the query's trigrams
+	private static final double MIN_SCORE = 0.5;
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeOutboxRelay relay;
+
+	// id -> indexed entry, and trigram -> ids of names containing it
+	private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+	private static final class Entry {
+		final String name;
+		final int version;
+		final Set<String> trigrams;
+
+		Entry(String name, int version) {
+			this.name = name;
+			this.version = version;
+			this.trigrams = trigrams(name);
+		}
+	}
+
+	public EmployeeNameIndex(EmployeeDAO employeeDAO, EmployeeOutboxRelay relay) {
+		this.employeeDAO = employeeDAO;
+		this.relay = relay;
+	}
+
+	// Subscribe first, then scan, so no change is lost in between. Events arriving meanwhile wait for the scan,
+	// so a delete is never undone by the scan's older copy of the row; replayed updates are dropped by version.
+	public void start() {
+		relay.subscribe(this);
+		long started = System.currentTimeMillis();
+		synchronized (this) {
+			employeeDAO.streamAllEmployees(
+					employee -> put(employee.getId(), employee.getName(), employee.getVersion()));
+		}
+		System.out.println("Name index loaded " + entries.size() + " employees in "
+				+ (System.currentTimeMillis() - started) + " ms.");
+	}
+
+	public void stop() {
+		relay.unsubscribe(this);
+	}
+
+	@Override
+	public void onEvent(EmployeeChangeEvent event) {
+		switch (event.getType()) {
+		case INSERTED:
+		case UPDATED:
+			put(event.getEmployee().getId(), event.getEmployee().getName(), event.getEmployee().getVersion());
+			break;
+		case DELETED:
+			remove(event.getEmployeeId());
+			break;
+		case PARTITION_TRUNCATED:
+			// The event does not list the removed rows
+			reload();
+			break;
+		default:
+			// Salary adjustments do not touch names
+			break;
+		}
+	}
+
+	// Best matches first: by score, then names starting with the query, then shorter names
+	public List<NameMatch> search(String query, int limit) {
+		Set<String> queryTrigrams = trigrams(query);
+		if (queryTrigrams.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+		Map<Integer, int[]> hits = new HashMap<>();
+		for (String trigram : queryTrigrams) {
+			Set<Integer> ids = postings.get(trigram);
+			if (ids != null) {
+				for (Integer id : ids) {
+					hits.computeIfAbsent(id, key -> new int[1])[0]++;
+				}
+			}
+		}
+
+		String normalizedQuery = normalize(query);
+		Comparator<NameMatch> ranking = Comparator.comparingDouble(NameMatch::getScore)
+				.thenComparing(match -> normalize(match.getName()).startsWith(normalizedQuery))
+				.thenComparing(Comparator.comparingInt((NameMatch match) -> match.getName().length()).reversed())
+				.thenComparing(Comparator.comparingInt(NameMatch::getId).reversed());
+		// Min-heap of the best matches so far
+		PriorityQueue<NameMatch> best = new PriorityQueue<>(limit + 1, ranking);
+		for (Map.Entry<Integer, int[]> hit : hits.entrySet()) {
+			double score = (double) hit.getValue()[0] / queryTrigrams.size();
+			Entry entry = entries.get(hit.getKey());
+			if (score < MIN_SCORE || entry == null) {
+				continue;
+			}
+			best.add(new NameMatch(hit.getKey(), entry.name, score));
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+		List<NameMatch> matches = new ArrayList<>(best);
+		matches.sort(ranking.reversed());
+		return matches;
+	}
+
+	// Rebuild from a fresh scan
+	public synchronized void reload() {
+		entries.clear();
+		postings.clear();
+		employeeDAO.streamAllEmployees(employee -> put(employee.getId(), employee.getName(), employee.getVersion()));
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	// The relay is the only writer after start(); the scans in start() and reload() hold the same lock
+	private synchronized void put(int id, String name, int version) {
+		Entry current = entries.get(id);
+		if (current != null && current.version > version) {
+			return;
+		}
+		Entry entry = new Entry(name, version);
+		entries.put(id, entry);
+		if (current != null) {
+			for (String trigram : current.trigrams) {
+				if (!entry.trigrams.contains(trigram)) {
+					removePosting(trigram, id);
+				}
+			}
+		}
+		for (String trigram : entry.trigrams) {
+			postings.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(id);
+		}
+	}
+
+	private synchronized void remove(Integer id) {
+		Entry current = id == null ? null : entries.remove(id);
+		if (current != null) {
+			for (String trigram : current.trigrams) {
+				removePosting(trigram, id);
+			}
+		}
+	}
+
+	private void removePosting(String trigram, int id) {
+		Set<Integer> ids = postings.get(trigram);
+		if (ids != null) {
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				postings.remove(trigram, ids);
+			}
+		}
+	}
+
+	private static String normalize(String value) {
+		return value.toLowerCase(Locale.ROOT).trim();
+	}
+
+	// Trigrams of each word, lower-cased and split on anything that is not a letter or digit
+	private static Set<String> trigrams(String value) {
+		Set<String> trigrams = new LinkedHashSet<>();
+		if (value == null) {
+			return trigrams;
+		}
+		for (String word : normalize(value).split("[^\\p{L}\\p{N}]+")) {
+			if (word.isEmpty()) {
+				continue;
+			}
+			String padded = "  " + word;
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				trigrams.add(padded.substring(i, i + 3));
+			}
+		}
+		return trigrams;
+	}
+}
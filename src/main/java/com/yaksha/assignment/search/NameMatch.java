@@ -0,0 +1,33 @@
+package com.yaksha.assignment.search;
+
+// One hit of a fuzzy name search
+public class NameMatch {
+
+	private final int id;
+	private final String name;
+	private final double score;
+
+	public NameMatch(int id, String name, double score) {
+		this.id = id;
+		this.name = name;
+		this.score = score;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	// Share of the query's trigrams found in the name, between 0 and 1
+	public double getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "NameMatch [id=" + id + ", name=" + name + ", score=" + score + "]";
+	}
+}
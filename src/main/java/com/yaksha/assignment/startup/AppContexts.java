@@ -0,0 +1,54 @@
+package com.yaksha.assignment.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+// Builds application contexts honouring the startup options:
+//   -Demployee.startup=fast          lazy bean initialisation and no legacy schema upgrade checks
+//   -Demployee.startup.timeline=true record a StartupTimeline (see printTimeline)
+public final class AppContexts {
+
+	public static final String STARTUP_MODE_PROPERTY = "employee.startup";
+	public static final String FAST_START = "fast";
+	public static final String TIMELINE_PROPERTY = "employee.startup.timeline";
+
+	private AppContexts() {
+	}
+
+	public static AnnotationConfigApplicationContext create(Class<?>... componentClasses) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		if (Boolean.getBoolean(TIMELINE_PROPERTY)) {
+			context.setApplicationStartup(new StartupTimeline());
+		}
+		if (isFastStart()) {
+			// Application beans are only created when first needed, e.g. by the first DAO call
+			context.addBeanFactoryPostProcessor(new BeanFactoryPostProcessor() {
+				@Override
+				public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+					for (String beanName : beanFactory.getBeanDefinitionNames()) {
+						BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+						if (beanDefinition.getRole() == BeanDefinition.ROLE_APPLICATION) {
+							beanDefinition.setLazyInit(true);
+						}
+					}
+				}
+			});
+		}
+		context.register(componentClasses);
+		context.refresh();
+		return context;
+	}
+
+	public static boolean isFastStart() {
+		return FAST_START.equals(System.getProperty(STARTUP_MODE_PROPERTY));
+	}
+
+	// Print the startup timeline if one was requested; call after the first query so lazy beans are included
+	public static void printTimeline(AnnotationConfigApplicationContext context) {
+		if (context.getApplicationStartup() instanceof StartupTimeline) {
+			((StartupTimeline) context.getApplicationStartup()).printReport();
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.yaksha.assignment.startup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+// Records the startup steps Spring reports while refreshing a context (bean instantiation, config class
+// parsing, post-processing, ...) and prints a per-phase and per-bean breakdown. Steps nest per thread: a bean
+// created on another thread (e.g. a lazy bean on a request thread) does not become the child of whatever the
+// startup thread has open.
+public class StartupTimeline implements ApplicationStartup {
+
+	private final long startNanos = System.nanoTime();
+	private final ThreadLocal<Deque<TimelineStep>> open = ThreadLocal.withInitial(ArrayDeque::new);
+	private final List<TimelineStep> finished = new ArrayList<>();
+	private long nextId;
+
+	@Override
+	public synchronized StartupStep start(String name) {
+		Deque<TimelineStep> stack = open.get();
+		TimelineStep step = new TimelineStep(++nextId, name, stack.peek(), stack);
+		stack.push(step);
+		return step;
+	}
+
+	private synchronized void end(TimelineStep step) {
+		step.endNanos = System.nanoTime();
+		// A step may be ended on another thread than the one that started it
+		step.stack.remove(step);
+		finished.add(step);
+		if (step.parent != null) {
+			step.parent.childNanos += step.endNanos - step.startNanos;
+		}
+	}
+
+	// Print phases in the order they finished, then the slowest beans by their own (exclusive) time
+	public synchronized void printReport() {
+		System.out.println(
+				"Startup timeline (" + millis(System.nanoTime() - startNanos) + " ms since context creation started):");
+		System.out.println("  Phases:");
+		List<TimelineStep> beans = new ArrayList<>();
+		for (TimelineStep step : finished) {
+			if (step.name.equals("spring.beans.instantiate")) {
+				beans.add(step);
+			} else {
+				System.out.println("    " + pad(millis(step.endNanos - step.startNanos)) + " ms  " + step.name
+						+ step.describeTags());
+			}
+		}
+		beans.sort((a, b) -> Long.compare(b.selfNanos(), a.selfNanos()));
+		System.out.println("  Beans (self / total):");
+		for (TimelineStep bean : beans) {
+			System.out.println("    " + pad(millis(bean.selfNanos())) + " / "
+					+ pad(millis(bean.endNanos - bean.startNanos)) + " ms  " + bean.tagValue("beanName"));
+		}
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.1f", nanos / 1_000_000.0);
+	}
+
+	private static String pad(String value) {
+		return String.format("%8s", value);
+	}
+
+	private class TimelineStep implements StartupStep {
+
+		private final long id;
+		private final String name;
+		private final TimelineStep parent;
+		private final Deque<TimelineStep> stack;
+		private final long startNanos = System.nanoTime();
+		private final List<Tag> tags = new ArrayList<>();
+		private long endNanos;
+		private long childNanos;
+
+		TimelineStep(long id, String name, TimelineStep parent, Deque<TimelineStep> stack) {
+			this.id = id;
+			this.name = name;
+			this.parent = parent;
+			this.stack = stack;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public long getId() {
+			return id;
+		}
+
+		@Override
+		public Long getParentId() {
+			return parent == null ? null : parent.id;
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			tags.add(new TimelineTag(key, value));
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return new Tags() {
+				@Override
+				public Iterator<Tag> iterator() {
+					return tags.iterator();
+				}
+			};
+		}
+
+		@Override
+		public void end() {
+			StartupTimeline.this.end(this);
+		}
+
+		long selfNanos() {
+			return endNanos - startNanos - childNanos;
+		}
+
+		String tagValue(String key) {
+			for (Tag tag : tags) {
+				if (tag.getKey().equals(key)) {
+					return tag.getValue();
+				}
+			}
+			return "?";
+		}
+
+		String describeTags() {
+			if (tags.isEmpty()) {
+				return "";
+			}
+			StringBuilder sb = new StringBuilder(" [");
+			for (Tag tag : tags) {
+				if (sb.length() > 2) {
+					sb.append(", ");
+				}
+				sb.append(tag.getKey()).append('=').append(tag.getValue());
+			}
+			return sb.append(']').toString();
+		}
+	}
+
+	private static class TimelineTag implements StartupStep.Tag {
+
+		private final String key;
+		private final String value;
+
+		TimelineTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public String getValue() {
+			return value;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.yaksha.assignment.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yaksha.assignment.cache.CachingEmployeeReader;
+import com.yaksha.assignment.cache.DepartmentSalaryView;
+import com.yaksha.assignment.cache.EmployeeCache;
+import com.yaksha.assignment.codec.EmployeeCodec;
+import com.yaksha.assignment.dao.EmployeeChangeTracker;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.models.DepartmentSummary;
+import com.yaksha.assignment.models.Employee;
+import com.yaksha.assignment.search.EmployeeNameIndex;
+
+@RestController
+@RequestMapping("/employees")
+public class EmployeeController {
+
+	public static final String NDJSON = "application/x-ndjson";
+	// Consecutive EmployeeCodec batches, each preceded by its length as a 4-byte big-endian int
+	public static final String EMPLOYEE_BATCHES = "application/x-employee-batches";
+	private static final int EXPORT_BATCH_SIZE = 1000;
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	private final EmployeeDAO employeeDAO;
+	private final EmployeeChangeTracker changeTracker;
+	private final ObjectMapper objectMapper;
+	private final CachingEmployeeReader cachingReader;
+	private final ObjectProvider<EmployeeNameIndex> nameIndex;
+	private final ObjectProvider<DepartmentSalaryView> departmentView;
+	private final ObjectProvider<EmployeeCache> employeeCache;
+
+	public EmployeeController(EmployeeDAO employeeDAO, EmployeeChangeTracker changeTracker,
+			ObjectMapper objectMapper, CachingEmployeeReader cachingReader,
+			ObjectProvider<EmployeeNameIndex> nameIndex, ObjectProvider<DepartmentSalaryView> departmentView,
+			ObjectProvider<EmployeeCache> employeeCache) {
+		this.employeeDAO = employeeDAO;
+		this.changeTracker = changeTracker;
+		this.objectMapper = objectMapper;
+		this.cachingReader = cachingReader;
+		this.nameIndex = nameIndex;
+		this.departmentView = departmentView;
+		this.employeeCache = employeeCache;
+	}
+
+	// Lookup by id, from the whole-table employee cache when it is enabled
+	@GetMapping("/{id}")
+	public ResponseEntity<Employee> getEmployee(@PathVariable int id, WebRequest request) {
+		if (notModified(request)) {
+			return null;
+		}
+		EmployeeCache cache = employeeCache.getIfAvailable();
+		try {
+			return ResponseEntity.ok(cache == null ? employeeDAO.getEmployeeById(id) : cache.getEmployeeById(id));
+		} catch (RuntimeException e) {
+			if (isNotFound(e)) {
+				return ResponseEntity.notFound().build();
+			}
+			throw e;
+		}
+	}
+
+	// Keyset-paginated listing: GET /employees?after=<last id seen>&limit=<page size>
+	@GetMapping
+	public EmployeePage listEmployees(@RequestParam(defaultValue = "0") int after,
+			@RequestParam(defaultValue = "100") int limit, WebRequest request) {
+		if (notModified(request)) {
+			return null;
+		}
+		int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		List<Employee> employees = employeeDAO.getEmployeesAfterId(after, pageSize);
+		Integer nextAfter = employees.size() < pageSize ? null : employees.get(employees.size() - 1).getId();
+		return new EmployeePage(employees, nextAfter);
+	}
+
+	// Everyone in one department: GET /employees?department=<name>, served from the query cache until the
+	// table changes
+	@GetMapping(params = "department")
+	public List<Employee> listDepartment(@RequestParam String department, WebRequest request) {
+		if (notModified(request)) {
+			return null;
+		}
+		return cachingReader.getEmployeesByDepartment(department);
+	}
+
+	// Typeahead: GET /employees/search?q=<text>&limit=<n> ranks fuzzy matches from the in-memory name index;
+	// add prefix=true for an exact name prefix lookup served by the database index, which is also what
+	// answers when the name index is not enabled
+	@GetMapping("/search")
+	public List<?> searchEmployees(@RequestParam String q, @RequestParam(defaultValue = "10") int limit,
+			@RequestParam(defaultValue = "false") boolean prefix) {
+		int resultSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+		EmployeeNameIndex index = nameIndex.getIfAvailable();
+		if (prefix || index == null) {
+			return employeeDAO.getEmployeesByNamePrefix(q, resultSize);
+		}
+		return index.search(q, resultSize);
+	}
+
+	// Headcount and salary totals per department, answered from memory when the department view is enabled
+	// and otherwise by the SQL aggregate, cached until the table changes
+	@GetMapping("/departments")
+	public List<DepartmentSummary> getDepartmentSummaries() {
+		DepartmentSalaryView view = departmentView.getIfAvailable();
+		return view == null ? cachingReader.getDepartmentSummaries() : view.getSummaries();
+	}
+
+	// Full export as newline-delimited JSON, written row by row while the cursor is read, so memory use
+	// does not grow with the table. Without a Content-Length the response goes out chunked.
+	@GetMapping(value = "/export", produces = NDJSON)
+	public void exportEmployees(HttpServletResponse response, WebRequest request) throws IOException {
+		if (notModified(request)) {
+			return;
+		}
+		response.setContentType(NDJSON);
+		response.setCharacterEncoding("UTF-8");
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+			generator.setRootValueSeparator(null);
+			employeeDAO.streamAllEmployees(employee -> {
+				try {
+					generator.writeObject(employee);
+					generator.writeRaw('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	// The same export in the compact binary format (?format=binary), for bulk transfers
+	@GetMapping(value = "/export", params = "format=binary", produces = EMPLOYEE_BATCHES)
+	public void exportEmployeesBinary(HttpServletResponse response, WebRequest request) throws IOException {
+		if (notModified(request)) {
+			return;
+		}
+		response.setContentType(EMPLOYEE_BATCHES);
+		OutputStream out = response.getOutputStream();
+		List<Employee> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+		employeeDAO.streamAllEmployees(employee -> {
+			batch.add(employee);
+			if (batch.size() == EXPORT_BATCH_SIZE) {
+				writeBatch(out, batch);
+				batch.clear();
+			}
+		});
+		if (!batch.isEmpty()) {
+			writeBatch(out, batch);
+		}
+	}
+
+	private static void writeBatch(OutputStream out, List<Employee> batch) {
+		int size = EmployeeCodec.sizeOfBatch(batch);
+		ByteBuffer buffer = ByteBuffer.allocate(4 + size);
+		buffer.putInt(size);
+		EmployeeCodec.writeBatch(buffer, batch, EmployeeCodec.Layout.COLUMNS);
+		try {
+			out.write(buffer.array());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Answer If-None-Match / If-Modified-Since from the table change version without touching the database.
+	// Also sets ETag and Last-Modified on full responses.
+	private boolean notModified(WebRequest request) {
+		return request.checkNotModified(changeTracker.getETag(), changeTracker.getLastModified());
+	}
+
+	// DAO exceptions may arrive wrapped (e.g. in a CompletionException), so look through the cause chain
+	static boolean isNotFound(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof EmptyResultDataAccessException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,26 @@
+package com.yaksha.assignment.web;
+
+import java.util.List;
+
+import com.yaksha.assignment.models.Employee;
+
+// One page of a keyset-paginated listing; pass nextAfter as "after" to fetch the following page
+public class EmployeePage {
+
+	private final List<Employee> employees;
+	private final Integer nextAfter;
+
+	public EmployeePage(List<Employee> employees, Integer nextAfter) {
+		this.employees = employees;
+		this.nextAfter = nextAfter;
+	}
+
+	public List<Employee> getEmployees() {
+		return employees;
+	}
+
+	// Null on the last page
+	public Integer getNextAfter() {
+		return nextAfter;
+	}
+}
@@ -0,0 +1,20 @@
+package com.yaksha.assignment.web;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.yaksha.assignment.config.AppConfig;
+
+// HTTP front end for EmployeeDAO. The data source, DAO and transaction aspect come from AppConfig, so
+// Boot's own DataSource and JPA auto-configuration are switched off.
+@SpringBootApplication(exclude = { DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class })
+@Import(AppConfig.class)
+public class EmployeeWebApp {
+
+	public static void main(String[] args) {
+		SpringApplication.run(EmployeeWebApp.class, args);
+	}
+}
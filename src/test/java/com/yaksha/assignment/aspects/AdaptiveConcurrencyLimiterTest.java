@@ -0,0 +1,75 @@
+package com.yaksha.assignment.aspects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+	private static final long LOOKUP_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+	private static final long FULL_READ_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 1, 100, 0, 10);
+
+	// Fast lookups and slow full reads sharing the bulkhead are each compared with their own baseline
+	@Test
+	public void testMixedOperationsDoNotCollapseLimit() {
+		for (int i = 0; i < 200; i++) {
+			limiter.acquire();
+			limiter.release("getEmployeeById", LOOKUP_NANOS);
+			limiter.acquire();
+			limiter.release("getAllEmployees", FULL_READ_NANOS);
+		}
+
+		assertEquals(20, (int) limiter.getLimit());
+	}
+
+	// An operation slowing down against its own baseline still backs the limit off
+	@Test
+	public void testSlowdownOfOneOperationReducesLimit() {
+		limiter.acquire();
+		limiter.release("getEmployeeById", LOOKUP_NANOS);
+		limiter.acquire();
+		limiter.release("getEmployeeById", 10 * LOOKUP_NANOS);
+
+		assertEquals(18, (int) limiter.getLimit());
+	}
+
+	// A release without a sample frees the slot and leaves the limit alone
+	@Test
+	public void testReleaseWithoutSampleKeepsLimit() {
+		limiter.acquire();
+		limiter.release();
+
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(20, (int) limiter.getLimit());
+	}
+
+	// Past the limit, with no queue allowed, callers are rejected rather than left waiting
+	@Test
+	public void testRejectsWhenFull() {
+		for (int i = 0; i < 20; i++) {
+			limiter.acquire();
+		}
+
+		assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+		assertEquals(1, limiter.getRejected());
+		assertEquals(20, limiter.getInFlight());
+	}
+
+	// Streaming exports hold a read slot but do not feed the limit
+	@Test
+	public void testStreamingMethodsDoNotAdaptTheLimit() {
+		DaoBulkheads bulkheads = new DaoBulkheads(limiter, new AdaptiveConcurrencyLimiter("write", 10, 1, 50, 0, 10));
+
+		assertSame(limiter, bulkheads.forMethod("streamAllEmployees"));
+		assertFalse(bulkheads.adaptsTo("streamAllEmployees"));
+		assertTrue(bulkheads.adaptsTo("getAllEmployees"));
+	}
+}
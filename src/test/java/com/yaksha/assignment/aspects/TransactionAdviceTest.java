@@ -0,0 +1,162 @@
+package com.yaksha.assignment.aspects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.HashMap;
+
+import javax.sql.DataSource;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yaksha.assignment.diagnostics.QueryPlanSampler;
+
+// TransactionAdvice around stand-in DAO calls, with a transaction manager that only counts outcomes
+public class TransactionAdviceTest {
+
+	// Body of a stand-in DAO method
+	private interface Body {
+		Object run() throws Throwable;
+	}
+
+	private final DataSource dataSource = stub(DataSource.class);
+	private final QueryPlanSampler sampler = new QueryPlanSampler(null, null, false, 50, 1000);
+	private int rolledBack;
+
+	private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			rolledBack++;
+		}
+	};
+
+	private final TransactionAdvice advice = new TransactionAdvice(
+			new TransactionTimeouts(new TransactionTemplate(transactionManager), new HashMap<>(), false), dataSource,
+			new DaoBulkheads(new AdaptiveConcurrencyLimiter("read", 10, 1, 10, 10, 100),
+					new AdaptiveConcurrencyLimiter("write", 10, 1, 10, 10, 100)),
+			sampler);
+
+	@AfterEach
+	public void stopSampler() {
+		sampler.stop();
+	}
+
+	// Callers still see the exception the DAO threw, e.g. to retry on an optimistic locking failure
+	@Test
+	public void testUncheckedExceptionsPassThroughUnchanged() {
+		IllegalArgumentException invalid = new IllegalArgumentException("Salary cannot be negative");
+		OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("stale version");
+
+		assertSame(invalid, assertThrows(IllegalArgumentException.class,
+				() -> advice.invoke(joinPoint("insertEmployee", () -> {
+					throw invalid;
+				}))));
+		assertSame(conflict, assertThrows(OptimisticLockingFailureException.class,
+				() -> advice.invoke(joinPoint("updateEmployee", () -> {
+					throw conflict;
+				}))));
+		assertEquals(2, rolledBack);
+		assertEquals(2, advice.getRollbackCount());
+	}
+
+	// Checked exceptions, which DAO methods do not declare, are wrapped
+	@Test
+	public void testCheckedExceptionWrapped() {
+		IOException failure = new IOException("disk full");
+
+		RuntimeException thrown = assertThrows(RuntimeException.class,
+				() -> advice.invoke(joinPoint("exportPartition", () -> {
+					throw failure;
+				})));
+
+		assertSame(failure, thrown.getCause());
+		assertEquals(1, rolledBack);
+	}
+
+	// Inside a unit of work the exception also passes through, and the enclosing transaction can no longer commit
+	@Test
+	public void testJoinedTransactionMarkedRollbackOnly() {
+		ConnectionHolder connectionHolder = new ConnectionHolder(stub(Connection.class));
+		TransactionSynchronizationManager.bindResource(dataSource, connectionHolder);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			IllegalArgumentException invalid = new IllegalArgumentException("Salary cannot be negative");
+
+			assertSame(invalid, assertThrows(IllegalArgumentException.class,
+					() -> advice.invoke(joinPoint("insertEmployee", () -> {
+						throw invalid;
+					}))));
+			assertTrue(connectionHolder.isRollbackOnly());
+			assertEquals(0, rolledBack);
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+			TransactionSynchronizationManager.unbindResource(dataSource);
+		}
+	}
+
+	// A DAO call that returns commits
+	@Test
+	public void testSuccessCommits() throws Throwable {
+		assertEquals(3, advice.invoke(joinPoint("getEmployeeCount", () -> 3)));
+		assertEquals(1, advice.getCommitCount());
+		assertEquals(0, rolledBack);
+	}
+
+	private static ProceedingJoinPoint joinPoint(String methodName, Body body) {
+		Signature signature = (Signature) Proxy.newProxyInstance(Signature.class.getClassLoader(),
+				new Class<?>[] { Signature.class }, (proxy, method, args) -> methodName);
+		JoinPoint.StaticPart staticPart = (JoinPoint.StaticPart) Proxy.newProxyInstance(
+				JoinPoint.StaticPart.class.getClassLoader(), new Class<?>[] { JoinPoint.StaticPart.class },
+				(proxy, method, args) -> signature);
+		return (ProceedingJoinPoint) Proxy.newProxyInstance(ProceedingJoinPoint.class.getClassLoader(),
+				new Class<?>[] { ProceedingJoinPoint.class }, (proxy, method, args) -> {
+					if (method.getName().equals("getStaticPart")) {
+						return staticPart;
+					}
+					if (method.getName().equals("proceed")) {
+						return body.run();
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	// An instance to pass around and use as a key; any call on it fails
+	private static <T> T stub(Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					if (method.getName().equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					if (method.getName().equals("equals")) {
+						return proxy == args[0];
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}));
+	}
+}
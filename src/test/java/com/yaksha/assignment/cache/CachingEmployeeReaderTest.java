@@ -0,0 +1,65 @@
+package com.yaksha.assignment.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.yaksha.assignment.dao.EmployeeChangeTracker;
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.models.DepartmentSummary;
+import com.yaksha.assignment.models.Employee;
+
+// CachingEmployeeReader against a stand-in DAO that counts the queries reaching it
+public class CachingEmployeeReaderTest {
+
+	private final AtomicInteger queries = new AtomicInteger();
+
+	private final EmployeeDAO employeeDAO = new EmployeeDAO(null) {
+		@Override
+		public List<Employee> getEmployeesByDepartment(String department) {
+			queries.incrementAndGet();
+			Employee alice = new Employee("Alice", department, 100);
+			alice.setId(1);
+			return new ArrayList<>(Arrays.asList(alice));
+		}
+
+		@Override
+		public List<DepartmentSummary> getDepartmentSummaries() {
+			queries.incrementAndGet();
+			return new ArrayList<>(Arrays.asList(new DepartmentSummary("IT", 1, 100, 100, 100)));
+		}
+	};
+
+	private final CachingEmployeeReader reader = new CachingEmployeeReader(employeeDAO,
+			new EmployeeQueryCache(new EmployeeChangeTracker(), 1024 * 1024));
+
+	// Each hit hands out its own Employee objects, so one caller's changes do not reach the next
+	@Test
+	public void testHitsReturnCopiesOfEmployees() {
+		List<Employee> first = reader.getEmployeesByDepartment("IT");
+		first.get(0).setSalary(999);
+		first.add(new Employee("Bob", "IT", 50));
+
+		List<Employee> second = reader.getEmployeesByDepartment("IT");
+		assertEquals(1, queries.get());
+		assertEquals(1, second.size());
+		assertNotSame(first.get(0), second.get(0));
+		assertEquals(100, second.get(0).getSalary(), 0.0);
+	}
+
+	// Department summaries are copied on every hit as well
+	@Test
+	public void testHitsReturnCopiesOfSummaries() {
+		reader.getDepartmentSummaries().get(0).setHeadcount(42);
+
+		List<DepartmentSummary> summaries = reader.getDepartmentSummaries();
+		assertEquals(1, queries.get());
+		assertEquals(1, summaries.get(0).getHeadcount());
+	}
+}
@@ -0,0 +1,251 @@
+package com.yaksha.assignment.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.events.EmployeeChangeEvent;
+import com.yaksha.assignment.events.EmployeeChangeType;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+import com.yaksha.assignment.invalidation.Invalidation;
+import com.yaksha.assignment.models.Employee;
+
+// EmployeeCache against an in-memory stand-in for the DAO; the hooks run while a database read is in flight
+public class EmployeeCacheTest {
+
+	private final Map<Integer, Employee> table = new HashMap<>();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final AtomicInteger batchLookups = new AtomicInteger();
+	private Runnable duringRead = () -> {
+	};
+	private long oldestEventId = 1;
+	private volatile boolean replayed;
+	private volatile boolean scanned;
+
+	private final EmployeeDAO employeeDAO = new EmployeeDAO(null) {
+		@Override
+		public Employee getEmployeeById(int id) {
+			lookups.incrementAndGet();
+			Employee employee = new Employee(table.get(id));
+			duringRead.run();
+			return employee;
+		}
+
+		@Override
+		public List<Employee> getEmployeesByIds(Collection<Integer> ids) {
+			batchLookups.incrementAndGet();
+			List<Employee> employees = new ArrayList<>();
+			for (Integer id : ids) {
+				if (table.containsKey(id)) {
+					employees.add(new Employee(table.get(id)));
+				}
+			}
+			duringRead.run();
+			return employees;
+		}
+
+		@Override
+		public void streamAllEmployees(Consumer<Employee> consumer) {
+			scanned = true;
+			for (Employee employee : new ArrayList<>(table.values())) {
+				consumer.accept(new Employee(employee));
+				duringRead.run();
+			}
+		}
+	};
+
+	private final EmployeeOutboxRelay relay = new EmployeeOutboxRelay(null, null, 1000, 60000, 60000) {
+		@Override
+		public long getLatestEventId() {
+			return 0;
+		}
+
+		@Override
+		public long getOldestEventId() {
+			return oldestEventId;
+		}
+
+		@Override
+		public List<EmployeeChangeEvent> readEvents(long afterId, int limit) {
+			replayed = true;
+			return new ArrayList<>();
+		}
+	};
+
+	private EmployeeCache cache = new EmployeeCache(employeeDAO, relay, null);
+
+	// Callers modifying what they got back (e.g. updateEmployee bumping the version) must not touch the cache
+	@Test
+	public void testGetEmployeeByIdReturnsCopies() {
+		table.put(1, employee(1, 3));
+
+		Employee first = cache.getEmployeeById(1);
+		first.setVersion(4);
+		first.setName("Changed");
+		Employee second = cache.getEmployeeById(1);
+
+		assertNotSame(first, second);
+		assertEquals(3, second.getVersion());
+		assertEquals("Employee 1", second.getName());
+		assertEquals(1, lookups.get());
+	}
+
+	// A delete applied while a miss is being read from the database must not be undone by storing that read
+	@Test
+	public void testDeleteDuringMissIsNotResurrected() {
+		table.put(7, employee(7, 0));
+		duringRead = () -> cache.onEvent(deleted(10, 7));
+
+		cache.getEmployeeById(7);
+		cache.getEmployeeById(7);
+
+		// Not cached, so the second lookup went to the database again
+		assertEquals(2, lookups.get());
+	}
+
+	// A delete delivered while the initial scan is running keeps the row out of the loaded cache
+	@Test
+	public void testDeleteDuringLoadIsNotResurrected() throws InterruptedException {
+		for (int id = 1; id <= 3; id++) {
+			table.put(id, employee(id, 0));
+		}
+		// Delivered right after row 1 is scanned, before row 2 is
+		duringRead = () -> {
+			duringRead = () -> {
+			};
+			cache.onEvent(deleted(10, 2));
+		};
+
+		startAndLoad();
+
+		assertEquals(Arrays.asList(1, 3), ids(cache.getAllEmployees()));
+	}
+
+	// Rows changed elsewhere are re-read in one batch, including rows this cache has never seen
+	@Test
+	public void testInvalidationsReadChangedRowsInOneBatch() throws InterruptedException {
+		table.put(1, employee(1, 0));
+		table.put(2, employee(2, 0));
+		startAndLoad();
+
+		table.put(1, employee(1, 1));
+		table.put(4, employee(4, 0));
+		cache.onInvalidations(Arrays.asList(new Invalidation(1, 1), new Invalidation(4, 0), new Invalidation(2, 0)));
+
+		assertEquals(1, batchLookups.get());
+		assertEquals(Arrays.asList(1, 2, 4), ids(cache.getAllEmployees()));
+		assertEquals(1, cache.getEmployeeById(1).getVersion());
+	}
+
+	// A row found gone when re-read for an invalidation stays gone, even if an older event for it arrives later
+	@Test
+	public void testInvalidatedRowFoundDeletedStaysDeleted() throws InterruptedException {
+		table.put(1, employee(1, 0));
+		table.put(2, employee(2, 0));
+		startAndLoad();
+
+		table.remove(2);
+		cache.onInvalidations(Arrays.asList(new Invalidation(2, 1)));
+		cache.onEvent(new EmployeeChangeEvent(12, 2, EmployeeChangeType.UPDATED, null, employee(2, 1)));
+
+		assertEquals(Arrays.asList(1), ids(cache.getAllEmployees()));
+	}
+
+	// A snapshot whose later events may have been purged from the outbox is not trusted: the table is scanned
+	@Test
+	public void testSnapshotOlderThanOutboxRetentionIsIgnored() throws IOException, InterruptedException {
+		table.put(1, employee(1, 0));
+		table.put(2, employee(2, 0));
+		Path file = Files.createTempFile("employee-cache", ".snap");
+		try {
+			EmployeeSnapshotFile snapshotFile = new EmployeeSnapshotFile(file);
+			snapshotFile.write(5, Arrays.asList(employee(1, 0)));
+			oldestEventId = 100;
+			cache = new EmployeeCache(employeeDAO, relay, snapshotFile);
+
+			startAndLoad();
+
+			assertTrue(scanned);
+			assertFalse(replayed);
+			assertEquals(Arrays.asList(1, 2), ids(cache.getAllEmployees()));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	// A snapshot still covered by the outbox is mapped in and brought up to date by replaying events
+	@Test
+	public void testSnapshotWithinOutboxRetentionIsReplayed() throws IOException, InterruptedException {
+		Path file = Files.createTempFile("employee-cache", ".snap");
+		try {
+			EmployeeSnapshotFile snapshotFile = new EmployeeSnapshotFile(file);
+			snapshotFile.write(5, Arrays.asList(employee(1, 0)));
+			oldestEventId = 3;
+			cache = new EmployeeCache(employeeDAO, relay, snapshotFile);
+
+			cache.start();
+			assertEquals(Arrays.asList(1), ids(cache.getAllEmployees()));
+			for (int i = 0; i < 500 && !replayed; i++) {
+				Thread.sleep(10);
+			}
+			assertTrue(replayed);
+			assertFalse(scanned);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	// An older copy arriving after a newer one does not replace it
+	@Test
+	public void testOlderVersionDoesNotReplaceNewer() {
+		table.put(5, employee(5, 1));
+		cache.getEmployeeById(5);
+		cache.onEvent(new EmployeeChangeEvent(11, 5, EmployeeChangeType.UPDATED, null, employee(5, 4)));
+		cache.onEvent(new EmployeeChangeEvent(12, 5, EmployeeChangeType.UPDATED, null, employee(5, 2)));
+
+		assertEquals(4, cache.getEmployeeById(5).getVersion());
+	}
+
+	private void startAndLoad() throws InterruptedException {
+		cache.start();
+		for (int i = 0; i < 500 && !cache.isComplete(); i++) {
+			Thread.sleep(10);
+		}
+		assertTrue(cache.isComplete());
+	}
+
+	private static List<Integer> ids(List<Employee> employees) {
+		List<Integer> ids = new ArrayList<>();
+		for (Employee employee : employees) {
+			ids.add(employee.getId());
+		}
+		return ids;
+	}
+
+	private static EmployeeChangeEvent deleted(long eventId, int employeeId) {
+		return new EmployeeChangeEvent(eventId, employeeId, EmployeeChangeType.DELETED, null, null);
+	}
+
+	private static Employee employee(int id, int version) {
+		Employee employee = new Employee("Employee " + id, "IT", 1000);
+		employee.setId(id);
+		employee.setVersion(version);
+		return employee;
+	}
+}
@@ -0,0 +1,102 @@
+package com.yaksha.assignment.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.yaksha.assignment.models.Employee;
+
+public class EmployeeCodecTest {
+
+	// Awkward values for every field: absent strings, names outside the BMP, negative and extreme ids and
+	// versions, salaries with and without whole cents
+	private static List<Employee> samples() {
+		return Arrays.asList(employee(1, 0, 1000.0, "Alice", "IT", "E-1"),
+				employee(-7, 3, 1234.56, null, null, null),
+				employee(Integer.MIN_VALUE, Integer.MAX_VALUE, 1234.567, "Zo\u00eb \u674e \uD83D\uDE00", "Forschung",
+						"X"),
+				employee(Integer.MAX_VALUE, -1, 0.1 + 0.2, "", "IT", ""),
+				employee(42, 1, 1e20, "Bob", "Sales", null),
+				employee(43, 1, Double.NaN, null, "Sales", "E-43"));
+	}
+
+	// Every sample survives a single-record round trip, in exactly sizeOf bytes
+	@Test
+	public void testRecordRoundTrip() {
+		for (Employee employee : samples()) {
+			ByteBuffer buffer = ByteBuffer.allocate(EmployeeCodec.sizeOf(employee) + 16);
+			EmployeeCodec.writeEmployee(buffer, employee);
+			assertEquals(EmployeeCodec.sizeOf(employee), buffer.position());
+
+			buffer.flip();
+			assertSameEmployee(employee, EmployeeCodec.readEmployee(buffer));
+			assertEquals(0, buffer.remaining());
+		}
+	}
+
+	// Both batch layouts round-trip, including id deltas between extreme ids, in exactly sizeOfBatch bytes
+	@Test
+	public void testBatchRoundTrip() {
+		List<Employee> employees = samples();
+		for (EmployeeCodec.Layout layout : EmployeeCodec.Layout.values()) {
+			ByteBuffer buffer = ByteBuffer.allocate(EmployeeCodec.sizeOfBatch(employees) + 16);
+			EmployeeCodec.writeBatch(buffer, employees, layout);
+			assertEquals(EmployeeCodec.sizeOfBatch(employees), buffer.position());
+
+			buffer.flip();
+			List<Employee> decoded = EmployeeCodec.readBatch(buffer);
+			assertEquals(employees.size(), decoded.size());
+			for (int i = 0; i < employees.size(); i++) {
+				assertSameEmployee(employees.get(i), decoded.get(i));
+			}
+			assertEquals(0, buffer.remaining());
+		}
+	}
+
+	// An unpaired surrogate is written as U+FFFD, and sizeOf counts it as such
+	@Test
+	public void testUnpairedSurrogate() {
+		Employee employee = employee(5, 0, 10.0, "a\uD83Db", "IT", null);
+		ByteBuffer buffer = ByteBuffer.allocate(EmployeeCodec.sizeOf(employee));
+		EmployeeCodec.writeEmployee(buffer, employee);
+		assertEquals(0, buffer.remaining());
+
+		buffer.flip();
+		assertEquals("a\uFFFDb", EmployeeCodec.readEmployee(buffer).getName());
+	}
+
+	// Damaged input is rejected rather than misread
+	@Test
+	public void testDamagedInputRejected() {
+		ByteBuffer batch = EmployeeCodec.encodeBatch(samples(), EmployeeCodec.Layout.ROWS);
+		assertThrows(IllegalArgumentException.class, () -> EmployeeCodec.readEmployee(batch.duplicate()));
+
+		ByteBuffer future = batch.duplicate();
+		future.put(1, (byte) (EmployeeCodec.FORMAT_VERSION + 1));
+		assertThrows(IllegalArgumentException.class, () -> EmployeeCodec.readBatch(future));
+	}
+
+	private static Employee employee(int id, int version, double salary, String name, String department,
+			String code) {
+		Employee employee = new Employee(name, department, salary);
+		employee.setId(id);
+		employee.setVersion(version);
+		employee.setEmployeeCode(code);
+		return employee;
+	}
+
+	private static void assertSameEmployee(Employee expected, Employee actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getVersion(), actual.getVersion());
+		// Bit for bit, so NaN and the last digit of a non-cent salary count too
+		assertEquals(Double.doubleToLongBits(expected.getSalary()), Double.doubleToLongBits(actual.getSalary()));
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getDepartment(), actual.getDepartment());
+		assertEquals(expected.getEmployeeCode(), actual.getEmployeeCode());
+	}
+}
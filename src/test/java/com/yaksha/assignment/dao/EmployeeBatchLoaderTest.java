@@ -0,0 +1,97 @@
+package com.yaksha.assignment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.yaksha.assignment.models.Employee;
+
+// EmployeeBatchLoader against a stand-in DAO that knows employees 1 to 1000
+public class EmployeeBatchLoaderTest {
+
+	private final AtomicInteger batches = new AtomicInteger();
+
+	private final EmployeeDAO employeeDAO = new EmployeeDAO(null) {
+		@Override
+		public List<Employee> getEmployeesByIds(Collection<Integer> ids) {
+			batches.incrementAndGet();
+			List<Employee> employees = new ArrayList<>();
+			for (Integer id : ids) {
+				if (id <= 1000) {
+					Employee employee = new Employee("Employee " + id, "IT", 1000);
+					employee.setId(id);
+					employees.add(employee);
+				}
+			}
+			return employees;
+		}
+	};
+
+	// A long window, so every load in a test lands in the same batch unless it fills up
+	private final EmployeeBatchLoader loader = new EmployeeBatchLoader(employeeDAO, 200000, 10, 2);
+
+	@AfterEach
+	public void stopLoader() {
+		loader.stop();
+	}
+
+	// Callers coalesced onto one id share the lookup but not the object
+	@Test
+	public void testSameIdCallersGetTheirOwnCopies() {
+		CompletableFuture<Employee> first = loader.load(7);
+		CompletableFuture<Employee> second = loader.load(7);
+
+		Employee mine = first.join();
+		Employee theirs = second.join();
+		mine.setVersion(mine.getVersion() + 1);
+
+		assertNotSame(mine, theirs);
+		assertEquals(0, theirs.getVersion());
+		assertEquals(1, batches.get());
+	}
+
+	// Ids requested within the window go out together; unknown ids complete with null
+	@Test
+	public void testIdsWithinWindowShareOneBatch() {
+		CompletableFuture<Employee> known = loader.load(1);
+		CompletableFuture<Employee> other = loader.load(2);
+		CompletableFuture<Employee> unknown = loader.load(5000);
+
+		assertEquals(1, known.join().getId());
+		assertEquals(2, other.join().getId());
+		assertNull(unknown.join());
+		assertEquals(1, batches.get());
+	}
+
+	// A full batch is sent straight away instead of waiting for the window
+	@Test
+	public void testFullBatchIsSentEarly() {
+		List<CompletableFuture<Employee>> futures = new ArrayList<>();
+		for (int id = 1; id <= 10; id++) {
+			futures.add(loader.load(id));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals(i + 1, futures.get(i).join().getId());
+		}
+		assertEquals(1, batches.get());
+	}
+
+	// After stop nothing would send a new batch, so loads are refused instead of hanging
+	@Test
+	public void testLoadAfterStopIsRejected() {
+		loader.stop();
+
+		assertThrows(IllegalStateException.class, () -> loader.load(1));
+	}
+}
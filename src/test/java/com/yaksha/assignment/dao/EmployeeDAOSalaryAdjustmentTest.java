@@ -0,0 +1,136 @@
+package com.yaksha.assignment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+// Salary adjustments against an in-memory stand-in for the Employee table (id -> salary, all in department IT)
+public class EmployeeDAOSalaryAdjustmentTest {
+
+	private final TreeMap<Integer, Double> salaries = new TreeMap<>();
+	private final List<String> statements = new ArrayList<>();
+	private Runnable afterLockingRead = () -> {
+	};
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+		@Override
+		public void query(String sql, RowCallbackHandler handler, Object... args) {
+			statements.add(sql);
+			try {
+				for (Map.Entry<Integer, Double> row : scope(sql, args).entrySet()) {
+					handler.processRow(row(row.getKey(), row.getValue()));
+				}
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+			afterLockingRead.run();
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			statements.add(sql);
+			if (!sql.startsWith("UPDATE Employee")) {
+				return 1;
+			}
+			double factor = (Double) args[0];
+			double fixedAmount = (Double) args[1];
+			int updated = 0;
+			for (Map.Entry<Integer, Double> row : scope(sql, new Object[] { args[2], args[3] }).entrySet()) {
+				double salary = row.getValue() * factor + fixedAmount;
+				// The guard the UPDATE carries
+				if (salary >= 0) {
+					salaries.put(row.getKey(), salary);
+					updated++;
+				}
+			}
+			return updated;
+		}
+	};
+
+	private final EmployeeDAO employeeDAO = new EmployeeDAO(jdbcTemplate);
+
+	// A result below zero for any row rejects the whole adjustment before anything is updated
+	@Test
+	public void testNegativeResultRejected() {
+		salaries.put(1, 1000.0);
+		salaries.put(2, 100.0);
+
+		assertThrows(IllegalArgumentException.class, () -> employeeDAO.adjustSalariesByIdRange(1, 10, 0, -500));
+		assertEquals(1000.0, salaries.get(1), 0);
+		assertFalse(statements.stream().anyMatch(sql -> sql.startsWith("UPDATE")));
+	}
+
+	// The check reads lock the rows they validate
+	@Test
+	public void testCheckReadsLockRows() {
+		salaries.put(1, 1000.0);
+
+		employeeDAO.adjustSalariesByDepartment("IT", 10, 0);
+		employeeDAO.adjustSalariesByIdRange(1, 1, 10, 0);
+
+		assertTrue(statements.stream().filter(sql -> sql.startsWith("SELECT"))
+				.allMatch(sql -> sql.endsWith("FOR UPDATE")));
+		assertEquals(1210.0, salaries.get(1), 0.0001);
+	}
+
+	// The windows span the lowest to the highest existing id, not the whole requested range
+	@Test
+	public void testSparseRangeAdjustedInWindows() {
+		salaries.put(5, 100.0);
+		salaries.put(2500, 200.0);
+
+		assertEquals(2, employeeDAO.adjustSalariesByIdRange(1, 1000000, 0, 50));
+
+		assertEquals(150.0, salaries.get(5), 0);
+		assertEquals(250.0, salaries.get(2500), 0);
+		assertEquals(3, statements.stream().filter(sql -> sql.startsWith("UPDATE")).count());
+	}
+
+	// A row inserted after the locking read is not adjusted below zero
+	@Test
+	public void testRowInsertedAfterCheckIsGuarded() {
+		salaries.put(1, 1000.0);
+		afterLockingRead = () -> salaries.put(2, 100.0);
+
+		assertEquals(1, employeeDAO.adjustSalariesByIdRange(1, 2, 0, -500));
+
+		assertEquals(500.0, salaries.get(1), 0);
+		assertEquals(100.0, salaries.get(2), 0);
+	}
+
+	// Rows a statement covers: the whole table for a department, or the id window of its first two arguments
+	private Map<Integer, Double> scope(String sql, Object[] args) {
+		if (sql.contains("department = ?")) {
+			return new TreeMap<>(salaries);
+		}
+		int from = ((Number) args[0]).intValue();
+		int to = ((Number) args[1]).intValue();
+		return new TreeMap<>(salaries.subMap(from, true, to, true));
+	}
+
+	private static ResultSet row(int id, double salary) {
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, methodArgs) -> {
+					if (method.getName().equals("getLong")) {
+						return (long) id;
+					}
+					if (method.getName().equals("getDouble")) {
+						return salary;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -0,0 +1,108 @@
+package com.yaksha.assignment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import com.yaksha.assignment.models.Employee;
+import com.yaksha.assignment.utils.TestContexts;
+
+// The upsert against the test database (mvn test -Pembedded for H2). Every test uses its own employee codes,
+// so rows left by earlier tests or runs do not affect the counts.
+@ResourceLock(TestContexts.DATABASE)
+public class EmployeeDAOUpsertTest {
+
+	private final String prefix = "UT-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+	// Without a unique key on employee_code alone the upsert is refused before touching the database
+	@Test
+	public void testUpsertRefusedWithoutUniqueCodes() {
+		EmployeeDAO employeeDAO = new EmployeeDAO(null, new EmployeeChangeTracker(), null, false);
+		Employee employee = new Employee("Alice", "IT", 1000);
+		employee.setEmployeeCode("E-1");
+
+		assertThrows(IllegalStateException.class,
+				() -> employeeDAO.upsertEmployees(Collections.singletonList(employee)));
+	}
+
+	// New codes count as inserted, changed rows as updated and identical rows as unchanged
+	@Test
+	public void testUpsertCountsInsertedUpdatedUnchanged() {
+		EmployeeDAO employeeDAO = TestContexts.shared().getBean(EmployeeDAO.class);
+		UpsertResult first = employeeDAO.upsertEmployees(
+				Arrays.asList(employee(1, "IT", 1000), employee(2, "IT", 2000), employee(3, "HR", 3000)));
+		assertEquals(3, first.getInserted());
+		assertEquals(0, first.getUpdated());
+		assertEquals(0, first.getUnchanged());
+
+		UpsertResult second = employeeDAO.upsertEmployees(
+				Arrays.asList(employee(1, "IT", 1000), employee(2, "IT", 2500), employee(4, "HR", 4000)));
+		assertEquals(1, second.getInserted());
+		assertEquals(1, second.getUpdated());
+		assertEquals(1, second.getUnchanged());
+	}
+
+	// A batch larger than one 500-row chunk is applied completely, in the first call and in a second one
+	// whose changed rows straddle the chunk boundary
+	@Test
+	public void testUpsertAcrossChunkBoundary() {
+		EmployeeDAO employeeDAO = TestContexts.shared().getBean(EmployeeDAO.class);
+		List<Employee> batch = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			batch.add(employee(i, "IT", 1000 + i));
+		}
+		UpsertResult first = employeeDAO.upsertEmployees(batch);
+		assertEquals(600, first.getInserted());
+
+		Set<Integer> ids = new HashSet<>();
+		for (Employee employee : batch) {
+			ids.add(employee.getId());
+		}
+		assertEquals(600, ids.size());
+		assertEquals(600, employeeDAO.getEmployeesByIds(ids).size());
+
+		List<Employee> again = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			again.add(employee(i, "IT", i >= 495 && i < 505 ? 5000 + i : 1000 + i));
+		}
+		UpsertResult second = employeeDAO.upsertEmployees(again);
+		assertEquals(0, second.getInserted());
+		assertEquals(10, second.getUpdated());
+		assertEquals(590, second.getUnchanged());
+		assertEquals(5499, employeeDAO.getEmployeeById(again.get(499).getId()).getSalary(), 0.0);
+		assertEquals(5500, employeeDAO.getEmployeeById(again.get(500).getId()).getSalary(), 0.0);
+	}
+
+	// Changed rows move to the next version, in the database and in the caller's objects; unchanged rows keep
+	// theirs
+	@Test
+	public void testUpsertBumpsVersionOfChangedRows() {
+		EmployeeDAO employeeDAO = TestContexts.shared().getBean(EmployeeDAO.class);
+		employeeDAO.upsertEmployees(Arrays.asList(employee(1, "IT", 1000), employee(2, "IT", 2000)));
+
+		Employee changed = employee(1, "IT", 1100);
+		Employee same = employee(2, "IT", 2000);
+		employeeDAO.upsertEmployees(Arrays.asList(changed, same));
+
+		assertEquals(1, changed.getVersion());
+		assertEquals(0, same.getVersion());
+		assertEquals(1, employeeDAO.getEmployeeById(changed.getId()).getVersion());
+		assertEquals(0, employeeDAO.getEmployeeById(same.getId()).getVersion());
+	}
+
+	private Employee employee(int number, String department, double salary) {
+		Employee employee = new Employee("Employee " + number, department, salary);
+		employee.setEmployeeCode(prefix + number);
+		return employee;
+	}
+}
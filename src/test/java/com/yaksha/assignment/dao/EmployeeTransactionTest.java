@@ -0,0 +1,140 @@
+package com.yaksha.assignment.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yaksha.assignment.models.Employee;
+
+// EmployeeTransaction over a stand-in Employee table (id -> version) whose writes are held back until commit
+public class EmployeeTransactionTest {
+
+	private final Map<Integer, Integer> versions = new HashMap<>();
+	private final Map<Integer, Integer> pending = new HashMap<>();
+	private final List<Object[]> outboxRows = new ArrayList<>();
+	private final List<Object[]> pendingOutboxRows = new ArrayList<>();
+	private int commits;
+	private int rollbacks;
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+		@Override
+		public int update(String sql, Object... args) {
+			// UPDATE Employee ... WHERE id = ? AND version = ?
+			int id = (Integer) args[3];
+			int version = (Integer) args[4];
+			Integer current = pending.containsKey(id) ? pending.get(id) : versions.get(id);
+			if (current == null || current != version) {
+				return 0;
+			}
+			pending.put(id, version + 1);
+			return 1;
+		}
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			pendingOutboxRows.addAll(batchArgs);
+			return new int[batchArgs.size()];
+		}
+	};
+
+	private final AbstractPlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			commits++;
+			versions.putAll(pending);
+			outboxRows.addAll(pendingOutboxRows);
+			pending.clear();
+			pendingOutboxRows.clear();
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+			rollbacks++;
+			pending.clear();
+			pendingOutboxRows.clear();
+		}
+	};
+
+	private final EmployeeChangeTracker changeTracker = new EmployeeChangeTracker();
+	private final long initialTrackerVersion = changeTracker.getVersion();
+	private final EmployeeTransaction employeeTx = new EmployeeTransaction(new TransactionTemplate(transactionManager),
+			new EmployeeDAO(jdbcTemplate, changeTracker, new EmployeeOutbox(jdbcTemplate)));
+
+	// Two updates in one unit of work commit together, once; the callers' objects move to the new versions
+	// only after that commit
+	@Test
+	public void testTwoCallsCommitOnce() {
+		versions.put(1, 0);
+		versions.put(2, 3);
+		Employee alice = employee(1, 0);
+		Employee bob = employee(2, 3);
+
+		int versionsSeenInside = employeeTx.call(dao -> {
+			dao.updateEmployee(alice);
+			dao.updateEmployee(bob);
+			return alice.getVersion() + bob.getVersion();
+		});
+
+		assertEquals(3, versionsSeenInside);
+		assertEquals(1, commits);
+		assertEquals(0, rollbacks);
+		assertEquals(1, (int) versions.get(1));
+		assertEquals(4, (int) versions.get(2));
+		assertEquals(1, alice.getVersion());
+		assertEquals(4, bob.getVersion());
+		assertEquals(2, outboxRows.size());
+		assertEquals(2, changeTracker.getVersion() - initialTrackerVersion);
+	}
+
+	// A conflict in the second call rolls back the first as well, and both objects keep the versions that
+	// are still stored
+	@Test
+	public void testFailureRollsBackBothCalls() {
+		versions.put(1, 0);
+		versions.put(2, 3);
+		Employee alice = employee(1, 0);
+		Employee staleBob = employee(2, 2);
+
+		assertThrows(OptimisticLockingFailureException.class, () -> employeeTx.run(dao -> {
+			dao.updateEmployee(alice);
+			dao.updateEmployee(staleBob);
+		}));
+
+		assertEquals(0, commits);
+		assertEquals(1, rollbacks);
+		assertEquals(0, (int) versions.get(1));
+		assertEquals(3, (int) versions.get(2));
+		assertEquals(0, alice.getVersion());
+		assertEquals(2, staleBob.getVersion());
+		assertEquals(0, outboxRows.size());
+		assertEquals(0, changeTracker.getVersion() - initialTrackerVersion);
+	}
+
+	private static Employee employee(int id, int version) {
+		Employee employee = new Employee("Employee " + id, "IT", 100);
+		employee.setId(id);
+		employee.setVersion(version);
+		return employee;
+	}
+}
@@ -0,0 +1,47 @@
+package com.yaksha.assignment.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class QueryPlanAnalyzerTest {
+
+	// Statements differing only in values or list lengths share a shape
+	@Test
+	public void testShapeOfDropsLiterals() {
+		assertEquals("SELECT * FROM Employee WHERE name = ? AND id IN (...)",
+				QueryPlanAnalyzer.shapeOf("SELECT *  FROM Employee WHERE name = 'O''Brien' AND id IN (?, ?, ?)"));
+	}
+
+	// Condition values leave a MySQL plan; costs, row estimates and table names stay
+	@Test
+	public void testRedactJsonPlanConditions() {
+		String plan = "{\"query_block\": {\"cost_info\": {\"query_cost\": \"101.25\"}, \"table\": {"
+				+ "\"table_name\": \"Employee\", \"access_type\": \"ALL\", \"rows_examined_per_scan\": 1000, "
+				+ "\"attached_condition\": \"((`employeedb`.`Employee`.`name` = 'Alice') and "
+				+ "(`employeedb`.`Employee`.`salary` > 52000.5))\"}}}";
+
+		String redacted = QueryPlanAnalyzer.redactPlan(plan, true);
+
+		assertFalse(redacted.contains("Alice"));
+		assertFalse(redacted.contains("52000"));
+		assertTrue(redacted.contains("(`employeedb`.`Employee`.`name` = ?)"));
+		assertTrue(redacted.contains("101.25"));
+		assertTrue(redacted.contains("1000"));
+		assertEquals(1, QueryPlanAnalyzer.analyzeJson(redacted).getFullScans().size());
+	}
+
+	// H2's textual plan is redacted throughout, without touching index names
+	@Test
+	public void testRedactTextPlan() {
+		String plan = "SELECT \"ID\" FROM \"PUBLIC\".\"EMPLOYEE\" /* PUBLIC.PRIMARY_KEY_7: ID = 42 */ "
+				+ "WHERE (\"ID\" = 42) AND (\"NAME\" = 'Alice')";
+
+		String redacted = QueryPlanAnalyzer.redactPlan(plan, false);
+
+		assertEquals("SELECT \"ID\" FROM \"PUBLIC\".\"EMPLOYEE\" /* PUBLIC.PRIMARY_KEY_7: ID = ? */ "
+				+ "WHERE (\"ID\" = ?) AND (\"NAME\" = ?)", redacted);
+	}
+}
@@ -0,0 +1,168 @@
+package com.yaksha.assignment.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+// EmployeeOutboxRelay polling an in-memory stand-in for the EmployeeOutbox table, shared by several relays as by
+// several instances
+public class EmployeeOutboxRelayTest {
+
+	// Committed rows by id: { event_type, payload }
+	private final TreeMap<Long, String[]> table = new TreeMap<>();
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			List<Long> ids = new ArrayList<>();
+			if (sql.contains(" IN (")) {
+				for (Object arg : args) {
+					if (table.containsKey(arg)) {
+						ids.add((Long) arg);
+					}
+				}
+			} else {
+				for (Long id : table.tailMap(((Number) args[0]).longValue(), false).keySet()) {
+					if (ids.size() < ((Number) args[1]).intValue()) {
+						ids.add(id);
+					}
+				}
+			}
+			List<T> rows = new ArrayList<>();
+			try {
+				for (Long id : ids) {
+					rows.add(rowMapper.mapRow(row(id, table.get(id)), rows.size()));
+				}
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+			return rows;
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			return 1;
+		}
+	};
+
+	// Each instance's relay delivers every event, not just the ones it happened to poll first
+	@Test
+	public void testEveryInstanceReceivesEveryEvent() {
+		EmployeeOutboxRelay first = relay();
+		EmployeeOutboxRelay second = relay();
+		List<Long> firstSeen = subscribe(first);
+		List<Long> secondSeen = subscribe(second);
+		commit(1, "UPDATED");
+		commit(2, "DELETED");
+
+		first.poll();
+		second.poll();
+		commit(3, "DELETED");
+		second.poll();
+		first.poll();
+
+		assertEquals(Arrays.asList(1L, 2L, 3L), firstSeen);
+		assertEquals(Arrays.asList(1L, 2L, 3L), secondSeen);
+	}
+
+	// An insert committing after a later one is delivered once it shows up
+	@Test
+	public void testLateCommitBelowWatermarkIsDelivered() {
+		EmployeeOutboxRelay relay = relay();
+		List<Long> seen = subscribe(relay);
+		commit(1, "DELETED");
+		commit(3, "DELETED");
+
+		relay.poll();
+		assertEquals(1, relay.getGapCount());
+		commit(2, "DELETED");
+		relay.poll();
+
+		assertEquals(Arrays.asList(1L, 3L, 2L), seen);
+		assertEquals(0, relay.getGapCount());
+	}
+
+	// A listener failing on one event holds back later events for a bounded number of polls, then the event is
+	// dead-lettered and delivery moves on
+	@Test
+	public void testFailingEventIsDeadLetteredAfterMaxAttempts() {
+		EmployeeOutboxRelay relay = relay();
+		List<Long> seen = new ArrayList<>();
+		relay.subscribe(event -> {
+			if (event.getId() == 1) {
+				throw new IllegalStateException("cannot apply");
+			}
+			seen.add(event.getId());
+		});
+		commit(1, "DELETED");
+		commit(2, "DELETED");
+
+		for (int i = 1; i < EmployeeOutboxRelay.MAX_ATTEMPTS; i++) {
+			assertEquals(0, relay.poll());
+		}
+		assertEquals(0, seen.size());
+		relay.poll();
+
+		assertEquals(Arrays.asList(2L), seen);
+		assertEquals(1, relay.getDeadLetterCount());
+		assertEquals(EmployeeOutboxRelay.MAX_ATTEMPTS, relay.getFailureCount());
+	}
+
+	// Unreadable payloads and unknown event types are skipped straight away
+	@Test
+	public void testUnreadableEventsAreSkipped() {
+		EmployeeOutboxRelay relay = relay();
+		List<Long> seen = subscribe(relay);
+		table.put(1L, new String[] { "UPDATED", "{not json" });
+		table.put(2L, new String[] { "RENAMED", null });
+		commit(3, "DELETED");
+
+		relay.poll();
+
+		assertEquals(Arrays.asList(3L), seen);
+		assertEquals(2, relay.getDeadLetterCount());
+	}
+
+	private EmployeeOutboxRelay relay() {
+		return new EmployeeOutboxRelay(jdbcTemplate, null, 1000, 86400000L, 60000);
+	}
+
+	private static List<Long> subscribe(EmployeeOutboxRelay relay) {
+		List<Long> seen = new ArrayList<>();
+		relay.subscribe(event -> seen.add(event.getId()));
+		return seen;
+	}
+
+	private void commit(long id, String type) {
+		String payload = "UPDATED".equals(type) ? "{\"id\": " + id + ", \"name\": \"Employee " + id + "\"}" : null;
+		table.put(id, new String[] { type, payload });
+	}
+
+	private static ResultSet row(long id, String[] columns) {
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getLong":
+						return id;
+					case "getInt":
+						return (int) id;
+					case "wasNull":
+						return false;
+					case "getString":
+						return "event_type".equals(args[0]) ? columns[0] : columns[1];
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
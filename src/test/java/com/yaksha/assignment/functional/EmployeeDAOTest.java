@@ -5,7 +5,6 @@ import static com.yaksha.assignment.utils.TestUtils.currentTest;
 import static com.yaksha.assignment.utils.TestUtils.testReport;
 import static com.yaksha.assignment.utils.TestUtils.yakshaAssert;
 
-import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.file.Paths;
@@ -14,16 +13,20 @@ import javax.annotation.PostConstruct;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.yaksha.assignment.config.AppConfig;
 import com.yaksha.assignment.dao.EmployeeDAO;
 import com.yaksha.assignment.models.Employee;
+import com.yaksha.assignment.utils.ParsedSources;
+import com.yaksha.assignment.utils.TestContexts;
 
+@ResourceLock(TestContexts.DATABASE)
 public class EmployeeDAOTest {
 
 	@AfterAll
@@ -35,8 +38,8 @@ public class EmployeeDAOTest {
 	// @PostConstruct is present on createDatabaseAndTable method
 	@Test
 	public void testBeanAnnotations() throws IOException {
-		// Load the context using Java-based configuration
-		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+		// Load the context using Java-based configuration (shared across tests)
+		AnnotationConfigApplicationContext context = TestContexts.shared();
 
 		// Retrieve beans from the context
 		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
@@ -84,9 +87,6 @@ public class EmployeeDAOTest {
 		yakshaAssert(currentTest(),
 				dataSourceBeanPresent && jdbcTemplateBeanPresent && employeeDAOBeanPresent && postConstructPresent,
 				businessTestFile);
-
-		// Close the context
-		context.close();
 	}
 
 	// Test to check the SQL query construction in insertEmployee method
@@ -96,9 +96,8 @@ public class EmployeeDAOTest {
 		String filePath = Paths.get("src", "main", "java", "com", "yaksha", "assignment", "dao", "EmployeeDAO.java")
 				.toString();
 
-		// Load the EmployeeDAO class using JavaParser
-		JavaParser javaParser = new JavaParser();
-		CompilationUnit compilationUnit = javaParser.parse(new File(filePath)).getResult().get();
+		// Load the EmployeeDAO class using JavaParser (parsed once per run)
+		CompilationUnit compilationUnit = ParsedSources.parse(filePath);
 
 		// Find the insertEmployee method
 		MethodDeclaration insertEmployeeMethod = compilationUnit.getClassByName("EmployeeDAO").get().getMethods()
@@ -127,9 +126,8 @@ public class EmployeeDAOTest {
 		String filePath = Paths.get("src", "main", "java", "com", "yaksha", "assignment", "dao", "EmployeeDAO.java")
 				.toString();
 
-		// Load the EmployeeDAO class using JavaParser
-		JavaParser javaParser = new JavaParser();
-		CompilationUnit compilationUnit = javaParser.parse(new File(filePath)).getResult().get();
+		// Load the EmployeeDAO class using JavaParser (parsed once per run)
+		CompilationUnit compilationUnit = ParsedSources.parse(filePath);
 
 		// Find the getAllEmployees method
 		MethodDeclaration getAllEmployeesMethod = compilationUnit.getClassByName("EmployeeDAO").get().getMethods()
@@ -157,9 +155,8 @@ public class EmployeeDAOTest {
 		String filePath = Paths.get("src", "main", "java", "com", "yaksha", "assignment", "dao", "EmployeeDAO.java")
 				.toString();
 
-		// Load the EmployeeDAO class using JavaParser
-		JavaParser javaParser = new JavaParser();
-		CompilationUnit compilationUnit = javaParser.parse(new File(filePath)).getResult().get();
+		// Load the EmployeeDAO class using JavaParser (parsed once per run)
+		CompilationUnit compilationUnit = ParsedSources.parse(filePath);
 
 		// Find the getEmployeeById method
 		MethodDeclaration getEmployeeByIdMethod = compilationUnit.getClassByName("EmployeeDAO").get().getMethods()
@@ -181,11 +178,110 @@ public class EmployeeDAOTest {
 		yakshaAssert(currentTest(), queryCorrect, businessTestFile);
 	}
 
+	// Test to check that updateEmployee performs a compare-and-set on the version column
+	@Test
+	public void testUpdateEmployeeMethodSQL() throws IOException {
+		// Path to the EmployeeDAO.java file
+		String filePath = Paths.get("src", "main", "java", "com", "yaksha", "assignment", "dao", "EmployeeDAO.java")
+				.toString();
+
+		// Load the EmployeeDAO class using JavaParser (parsed once per run)
+		CompilationUnit compilationUnit = ParsedSources.parse(filePath);
+
+		// Find the updateEmployee method
+		MethodDeclaration updateEmployeeMethod = compilationUnit.getClassByName("EmployeeDAO").get().getMethods()
+				.stream().filter(method -> method.getNameAsString().equals("updateEmployee")).findFirst().orElse(null);
+
+		// Check if the method was found
+		if (updateEmployeeMethod == null) {
+			throw new AssertionError("updateEmployee method not found in EmployeeDAO class");
+		}
+
+		// Check if the update bumps the version and only matches the version that was read
+		String body = updateEmployeeMethod.getBody().get().toString();
+		boolean queryCorrect = body.contains("version = version + 1") && body.contains("WHERE id = ? AND version = ?");
+
+		// Log the result
+		System.out.println("Is SQL query for updateEmployee method correct? " + queryCorrect);
+
+		// Auto-grading with yakshaAssert
+		yakshaAssert(currentTest(), queryCorrect, businessTestFile);
+	}
+
+	// Test to check that an update carrying a version someone else has moved past is refused and leaves the
+	// stored row as the other writer left it
+	@Test
+	public void testStaleUpdateIsRejected() throws IOException {
+		// Load the context using Java-based configuration (shared across tests)
+		AnnotationConfigApplicationContext context = TestContexts.shared();
+		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
+
+		// Two copies read at the same version; the first update wins
+		Employee employee = new Employee("Stale Update", "IT", 50000);
+		employeeDAO.insertEmployee(employee);
+		Employee first = employeeDAO.getEmployeeById(employee.getId());
+		Employee stale = new Employee(first);
+		first.setSalary(60000);
+		employeeDAO.updateEmployee(first);
+
+		// The second update still carries the old version
+		boolean rejected = false;
+		stale.setSalary(70000);
+		try {
+			employeeDAO.updateEmployee(stale);
+		} catch (OptimisticLockingFailureException e) {
+			System.out.println("Exception occurred: " + e.getMessage());
+			rejected = true;
+		}
+
+		Employee stored = employeeDAO.getEmployeeById(employee.getId());
+		boolean unchanged = stored.getSalary() == 60000 && stored.getVersion() == first.getVersion();
+
+		// Log the result
+		System.out.println("Is a stale update rejected without changing the row? " + (rejected && unchanged));
+
+		// Auto-grading with yakshaAssert
+		yakshaAssert(currentTest(), rejected && unchanged, businessTestFile);
+	}
+
+	// Test to check that a delete carrying an outdated version is refused and the row stays
+	@Test
+	public void testStaleDeleteIsRejected() throws IOException {
+		// Load the context using Java-based configuration (shared across tests)
+		AnnotationConfigApplicationContext context = TestContexts.shared();
+		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
+
+		// The row moves to version 1 after it was read at version 0
+		Employee employee = new Employee("Stale Delete", "IT", 50000);
+		employeeDAO.insertEmployee(employee);
+		Employee current = employeeDAO.getEmployeeById(employee.getId());
+		int staleVersion = current.getVersion();
+		current.setSalary(55000);
+		employeeDAO.updateEmployee(current);
+
+		boolean rejected = false;
+		try {
+			employeeDAO.deleteEmployee(employee.getId(), staleVersion);
+		} catch (OptimisticLockingFailureException e) {
+			System.out.println("Exception occurred: " + e.getMessage());
+			rejected = true;
+		}
+
+		Employee stored = employeeDAO.getEmployeeById(employee.getId());
+		boolean unchanged = stored.getSalary() == 55000 && stored.getVersion() == current.getVersion();
+
+		// Log the result
+		System.out.println("Is a stale delete rejected without removing the row? " + (rejected && unchanged));
+
+		// Auto-grading with yakshaAssert
+		yakshaAssert(currentTest(), rejected && unchanged, businessTestFile);
+	}
+
 	// Test to check if the @Around advice is applied to EmployeeDAO methods
 	@Test
 	public void testAroundAdviceApplied() throws IOException {
-		// Load the context using Java-based configuration
-		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+		// Load the context using Java-based configuration (shared across tests)
+		AnnotationConfigApplicationContext context = TestContexts.shared();
 
 		// Retrieve the EmployeeDAO bean
 		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
@@ -209,16 +305,13 @@ public class EmployeeDAOTest {
 
 		// Auto-grading with yakshaAssert
 		yakshaAssert(currentTest(), transactionAspectApplied, businessTestFile);
-
-		// Close the context
-		context.close();
 	}
 
 	// Test to check if the transaction is rolled back on exception
 	@Test
 	public void testTransactionRollbackOnException() throws IOException {
-		// Load the context using Java-based configuration
-		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+		// Load the context using Java-based configuration (shared across tests)
+		AnnotationConfigApplicationContext context = TestContexts.shared();
 
 		// Retrieve the EmployeeDAO bean
 		EmployeeDAO employeeDAO = context.getBean(EmployeeDAO.class);
@@ -245,8 +338,6 @@ public class EmployeeDAOTest {
 			// Auto-grading with yakshaAssert
 			yakshaAssert(currentTest(), rollbackTriggered, businessTestFile);
 		}
-		// Close the context
-		context.close();
 	}
 
 }
@@ -0,0 +1,150 @@
+package com.yaksha.assignment.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+// DatabaseInvalidationBus polling an in-memory stand-in for the EmployeeInvalidation table, where rows can
+// commit out of id order
+public class DatabaseInvalidationBusTest {
+
+	private static final String OTHER_INSTANCE = "other-instance";
+
+	// Committed rows by id: { employee_id, version }
+	private final TreeMap<Long, int[]> table = new TreeMap<>();
+	private final List<Invalidation> delivered = new ArrayList<>();
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			List<Long> ids = new ArrayList<>();
+			if (sql.contains(" IN (")) {
+				for (Object arg : args) {
+					if (table.containsKey(arg)) {
+						ids.add((Long) arg);
+					}
+				}
+			} else {
+				for (Long id : table.tailMap(((Number) args[0]).longValue(), false).keySet()) {
+					if (ids.size() < ((Number) args[1]).intValue()) {
+						ids.add(id);
+					}
+				}
+			}
+			List<T> rows = new ArrayList<>();
+			try {
+				for (Long id : ids) {
+					rows.add(rowMapper.mapRow(row(id), rows.size()));
+				}
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+			return rows;
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			return 0;
+		}
+	};
+
+	// An insert committing after many later ones is still delivered, however many ids it fell behind
+	@Test
+	public void testLateCommitBelowWatermarkIsDelivered() {
+		DatabaseInvalidationBus bus = bus(60000);
+		for (long id = 1; id <= 1500; id++) {
+			if (id != 5) {
+				commit(id, (int) id);
+			}
+		}
+		bus.poll();
+		assertEquals(1499, delivered.size());
+		assertEquals(1, bus.getGapCount());
+
+		commit(5, 5);
+		delivered.clear();
+		bus.poll();
+
+		assertEquals(Arrays.asList(5), employeeIds(delivered));
+		assertEquals(0, bus.getGapCount());
+	}
+
+	// A gap is given up once gapMillis have passed, so ids of rolled-back inserts are not looked for forever
+	@Test
+	public void testGapExpires() throws InterruptedException {
+		DatabaseInvalidationBus bus = bus(1);
+		commit(1, 1);
+		commit(3, 3);
+		bus.poll();
+		assertEquals(1, bus.getGapCount());
+
+		Thread.sleep(5);
+		bus.poll();
+
+		assertEquals(0, bus.getGapCount());
+	}
+
+	// Rows are delivered once, not again on later polls
+	@Test
+	public void testRowsAreDeliveredOnce() {
+		DatabaseInvalidationBus bus = bus(60000);
+		commit(1, 1);
+		commit(2, 2);
+		bus.poll();
+		commit(3, 3);
+		delivered.clear();
+		bus.poll();
+
+		assertEquals(Arrays.asList(3), employeeIds(delivered));
+		assertEquals(0, bus.getGapCount());
+	}
+
+	private DatabaseInvalidationBus bus(long gapMillis) {
+		DatabaseInvalidationBus bus = new DatabaseInvalidationBus(jdbcTemplate, 1000, 600000, gapMillis);
+		bus.subscribe(delivered::addAll);
+		return bus;
+	}
+
+	private void commit(long id, int employeeId) {
+		table.put(id, new int[] { employeeId, 1 });
+	}
+
+	private static List<Integer> employeeIds(List<Invalidation> invalidations) {
+		List<Integer> ids = new ArrayList<>();
+		for (Invalidation invalidation : invalidations) {
+			ids.add(invalidation.getEmployeeId());
+		}
+		return ids;
+	}
+
+	// Just the columns the bus reads, for one row of the table
+	private ResultSet row(long id) {
+		int[] values = table.get(id);
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, args) -> {
+					String column = args != null && args.length > 0 ? String.valueOf(args[0]) : "";
+					switch (method.getName()) {
+					case "getLong":
+						return id;
+					case "getString":
+						return "origin".equals(column) ? OTHER_INSTANCE : null;
+					case "getInt":
+						return "employee_id".equals(column) ? values[0] : values[1];
+					case "wasNull":
+						return false;
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
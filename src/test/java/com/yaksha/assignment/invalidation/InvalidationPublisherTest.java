@@ -0,0 +1,36 @@
+package com.yaksha.assignment.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class InvalidationPublisherTest {
+
+	// One invalidation per row at its highest version, and one per distinct scope
+	@Test
+	public void testCoalesceKeepsLatestVersionAndDistinctScopes() {
+		String itScope = "{\"department\":\"IT\"}";
+		List<Invalidation> coalesced = InvalidationPublisher.coalesce(Arrays.asList(new Invalidation(1, 2),
+				Invalidation.scoped(itScope), new Invalidation(1, 5), new Invalidation(1, 3),
+				Invalidation.scoped(itScope), Invalidation.deleted(2)));
+
+		assertEquals(3, coalesced.size());
+		assertEquals(5, coalesced.get(0).getVersion());
+		assertTrue(coalesced.get(1).isDeleted());
+		assertEquals(itScope, coalesced.get(2).getScope());
+	}
+
+	// A truncation outdates everything, so it is all that is left to publish
+	@Test
+	public void testCoalesceAllRowsReplacesEverything() {
+		List<Invalidation> coalesced = InvalidationPublisher.coalesce(Arrays.asList(new Invalidation(1, 2),
+				Invalidation.scoped("{\"fromId\":1,\"toId\":10}"), Invalidation.allRows()));
+
+		assertEquals(1, coalesced.size());
+		assertTrue(coalesced.get(0).isAllRows());
+	}
+}
@@ -0,0 +1,72 @@
+package com.yaksha.assignment.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.yaksha.assignment.dao.EmployeeDAO;
+import com.yaksha.assignment.events.EmployeeChangeEvent;
+import com.yaksha.assignment.events.EmployeeChangeType;
+import com.yaksha.assignment.events.EmployeeOutboxRelay;
+import com.yaksha.assignment.models.Employee;
+
+// EmployeeNameIndex against a stand-in DAO whose scan sees Alice and Bob; Bob is deleted while it runs
+public class EmployeeNameIndexTest {
+
+	private Thread deleter;
+
+	private final EmployeeDAO employeeDAO = new EmployeeDAO(null) {
+		@Override
+		public void streamAllEmployees(Consumer<Employee> consumer) {
+			consumer.accept(employee(1, "Alice Smith"));
+			// The relay delivers the delete while the scan is still running ...
+			deleter = new Thread(() -> index.onEvent(new EmployeeChangeEvent(7, 2, EmployeeChangeType.DELETED,
+					null, null)));
+			deleter.start();
+			try {
+				deleter.join(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// ... and the scan then reaches its older copy of the deleted row
+			consumer.accept(employee(2, "Bob Jones"));
+		}
+	};
+
+	private final EmployeeOutboxRelay relay = new EmployeeOutboxRelay(null, null, 1000, 60000, 60000);
+
+	private final EmployeeNameIndex index = new EmployeeNameIndex(employeeDAO, relay);
+
+	// A delete delivered during the initial scan is applied after it, not undone by it
+	@Test
+	public void testDeleteDuringScanIsNotUndone() throws InterruptedException {
+		index.start();
+		deleter.join();
+
+		assertEquals(1, index.size());
+		assertTrue(index.search("Bob", 10).isEmpty());
+		index.stop();
+	}
+
+	// Misspelt and reordered words still find the name
+	@Test
+	public void testSearchToleratesTyposAndWordOrder() throws InterruptedException {
+		index.start();
+		deleter.join();
+
+		List<NameMatch> matches = index.search("smth alice", 10);
+		assertEquals(1, matches.size());
+		assertEquals(1, matches.get(0).getId());
+		index.stop();
+	}
+
+	private static Employee employee(int id, String name) {
+		Employee employee = new Employee(name, "IT", 1000);
+		employee.setId(id);
+		return employee;
+	}
+}
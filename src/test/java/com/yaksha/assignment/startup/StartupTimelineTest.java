@@ -0,0 +1,47 @@
+package com.yaksha.assignment.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.metrics.StartupStep;
+
+// StartupTimeline fed steps directly, the way Spring reports them while refreshing a context
+public class StartupTimelineTest {
+
+	private final StartupTimeline timeline = new StartupTimeline();
+
+	// Steps on one thread nest inside the step that thread has open
+	@Test
+	public void testStepsNestWithinThread() {
+		StartupStep outer = timeline.start("spring.context.refresh");
+		StartupStep inner = timeline.start("spring.beans.instantiate");
+		assertEquals(Long.valueOf(outer.getId()), inner.getParentId());
+		inner.end();
+
+		StartupStep next = timeline.start("spring.beans.instantiate");
+		assertEquals(Long.valueOf(outer.getId()), next.getParentId());
+		next.end();
+		outer.end();
+	}
+
+	// A step started on another thread does not become a child of the open step of this one, and ending it
+	// leaves this thread's nesting alone
+	@Test
+	public void testStepsOnOtherThreadsDoNotNest() throws InterruptedException {
+		StartupStep outer = timeline.start("spring.context.refresh");
+		AtomicReference<StartupStep> other = new AtomicReference<>();
+		Thread thread = new Thread(() -> other.set(timeline.start("spring.beans.instantiate")));
+		thread.start();
+		thread.join();
+
+		assertNull(other.get().getParentId());
+		other.get().end();
+		StartupStep inner = timeline.start("spring.beans.instantiate");
+		assertEquals(Long.valueOf(outer.getId()), inner.getParentId());
+		inner.end();
+		outer.end();
+	}
+}
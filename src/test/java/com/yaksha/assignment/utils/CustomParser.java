@@ -6,7 +6,6 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
@@ -32,9 +31,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -82,9 +80,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -132,9 +129,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -205,9 +201,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -267,9 +262,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -329,9 +323,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -402,9 +395,8 @@ public class CustomParser {
 			return false;
 		}
 
-		// Parse the class content using JavaParser
-		JavaParser javaParser = new JavaParser();
-		Optional<CompilationUnit> optionalCompilationUnit = javaParser.parse(classContent).getResult();
+		// Parse the class content using JavaParser (cached per file)
+		Optional<CompilationUnit> optionalCompilationUnit = ParsedSources.parse(filePath, classContent);
 
 		if (optionalCompilationUnit.isEmpty()) {
 			System.out.println("Error: Failed to parse the class content from file: " + filePath);
@@ -0,0 +1,41 @@
+package com.yaksha.assignment.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+
+// Source files parsed once per test JVM. Sources do not change during a run, so the cache is keyed by path.
+// JavaParser instances are not thread-safe, so each parse gets its own; the cached trees are only read.
+public final class ParsedSources {
+
+	private static final Map<String, Optional<CompilationUnit>> compilationUnits = new ConcurrentHashMap<>();
+
+	private ParsedSources() {
+	}
+
+	// Parse the file at the path, as the tests used to with new JavaParser().parse(new File(filePath))
+	public static CompilationUnit parse(String filePath) throws IOException {
+		try {
+			return compilationUnits.computeIfAbsent(filePath, path -> {
+				try {
+					return new JavaParser().parse(new File(path)).getResult();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).get();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	// Parse already loaded content of the file at the path; empty if it does not parse
+	public static Optional<CompilationUnit> parse(String filePath, String content) {
+		return compilationUnits.computeIfAbsent(filePath, path -> new JavaParser().parse(content).getResult());
+	}
+}
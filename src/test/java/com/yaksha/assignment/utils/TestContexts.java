@@ -0,0 +1,38 @@
+package com.yaksha.assignment.utils;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.yaksha.assignment.config.AppConfig;
+
+// One application context per test JVM, shared by all tests (and test threads) instead of one per test.
+// It is closed by a shutdown hook when the JVM exits. Each surefire fork has its own JVM, and the embedded
+// profile gives each fork its own database name (employeedb_<fork number>, see the pom), so forks never share
+// data. Inside a fork, test classes that use the database hold the DATABASE lock, so they never run at the
+// same time, and their methods run one after another.
+public final class TestContexts {
+
+	// Resource lock name for test classes that read or write the shared database
+	public static final String DATABASE = "employee-db";
+
+	private static volatile AnnotationConfigApplicationContext context;
+
+	private TestContexts() {
+	}
+
+	public static AnnotationConfigApplicationContext shared() {
+		AnnotationConfigApplicationContext current = context;
+		if (current == null) {
+			synchronized (TestContexts.class) {
+				current = context;
+				if (current == null) {
+					System.out.println("Test context on database "
+							+ System.getProperty("employee.db.name", "employeedb"));
+					current = new AnnotationConfigApplicationContext(AppConfig.class);
+					current.registerShutdownHook();
+					context = current;
+				}
+			}
+		}
+		return current;
+	}
+}
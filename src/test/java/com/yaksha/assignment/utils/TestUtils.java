@@ -30,6 +30,7 @@ public class TestUtils {
 
 	public static String testResult;
 
+	// Tests may run in parallel, so the counters only change under the class lock (see count)
 	public static int total;
 	public static int passed;
 	public static int failed;
@@ -40,7 +41,7 @@ public class TestUtils {
 	public static File xmlFile;
 
 	public static final String GUID = "6ed39465-d6d3-4ec4-b27d-1dcb870b2992";
-	public static String customData;
+	public static volatile String customData;
 	public static final String URL =  "https://compiler.techademy.com/v1/mfa-results/push";
 
 	static {
@@ -77,10 +78,11 @@ public class TestUtils {
 		TestResults testResults = new TestResults();
 		Map<String, TestCaseResultDto> testCaseResults = new HashMap<String, TestCaseResultDto>();
 
-        customData = "";
+        String customData = "";
         try{
 		    customData = readData("../custom.ih");
 		}catch(Exception e)	{}
+		TestUtils.customData = customData;
 
 		String resultStatus = "Failed";
 		int resultScore = 0;
@@ -156,28 +158,39 @@ public class TestUtils {
 
 		}
 
-		total++;
 		String[] r = testName.split("(?=\\p{Upper})");
-		System.out.print("\n" + BLUE_BOLD_BRIGHT + "=>");
+		// Build the line first and print it in one call, so parallel tests do not interleave their output
+		StringBuilder line = new StringBuilder();
+		line.append("\n" + BLUE_BOLD_BRIGHT + "=>");
 
-		System.out.print(YELLOW_BOLD_BRIGHT + "Test For : ");
+		line.append(YELLOW_BOLD_BRIGHT + "Test For : ");
 
 		for (int i = 1; i < r.length; i++) {
-			System.out.print(YELLOW_BOLD_BRIGHT + r[i] + " ");
+			line.append(YELLOW_BOLD_BRIGHT + r[i] + " ");
 
 		}
-		System.out.print(" : ");
+		line.append(" : ");
 
 		if (result.toString().equals("true")) {
-			System.out.println(GREEN_BOLD_BRIGHT + "PASSED" + TEXT_RESET);
+			line.append(GREEN_BOLD_BRIGHT + "PASSED" + TEXT_RESET);
+			count(true);
+		} else {
+			line.append(RED_BOLD_BRIGHT + "FAILED" + TEXT_RESET);
+			count(false);
+		}
+		System.out.println(line);
+	}
+
+	private static synchronized void count(boolean testPassed) {
+		total++;
+		if (testPassed) {
 			passed++;
 		} else {
-			System.out.println(RED_BOLD_BRIGHT + "FAILED" + TEXT_RESET);
 			failed++;
 		}
 	}
 
-	public static void testReport() {
+	public static synchronized void testReport() {
 
 		System.out.print("\n" + BLUE_BOLD_BRIGHT + "TEST CASES EVALUATED : " + total + TEXT_RESET);
 		System.out.print("\n" + GREEN_BOLD_BRIGHT + "PASSED : " + passed + TEXT_RESET);